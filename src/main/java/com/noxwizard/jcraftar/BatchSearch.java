@@ -0,0 +1,193 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.BatchResult;
+import com.noxwizard.jcraftar.datapassing.SearchParameters;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONObject;
+
+/**
+ * Searches many images against the same collection, running at most a given number of searches at the same time.
+ * Results are handed back as soon as each search finishes, and a failing image does not abort the rest of the batch.
+ * The images can be given with any of the types accepted by the single searches: file names, encoded bytes in a
+ * byte[] or a ByteBuffer, an InputStream, which is not closed, or a BufferedImage, mixed freely in the same batch.
+ *
+ * @author Stefano Zanini
+ */
+public class BatchSearch {
+
+	/**
+	 * Receives the result of each image of the batch, in completion order. It is always called on the thread that
+	 * started the batch, so it doesn't need to be thread safe.
+	 */
+	public interface Listener {
+
+		void onResult(BatchResult result);
+	}
+
+	private final String token;
+	private final SearchParameters optionals;
+	private int parallelism = Runtime.getRuntime().availableProcessors() * 4;
+
+	/**
+	 * @param token Catchoom collection token
+	 * @param optionals optional parameters for Catchoom search, shared by all the images
+	 */
+	public BatchSearch(String token, SearchParameters optionals) {
+		this.token = token;
+		this.optionals = optionals;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the maximum number of searches running at the same time
+	 *
+	 * @param parallelism a positive number
+	 * @return this batch search
+	 */
+	public BatchSearch setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(String.format("Wrong parallelism: %s", parallelism));
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Searches all the images and returns their results
+	 *
+	 * @param images the images to search: file names, byte arrays, ByteBuffers, InputStreams or BufferedImages
+	 * @return the results, in the same order as the images
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the searches
+	 */
+	public List<BatchResult> search(Collection<?> images) throws InterruptedException {
+		return search(images, null);
+	}
+
+	/**
+	 * Searches all the images, passing each result to the listener as soon as it is available
+	 *
+	 * @param images the images to search: file names, byte arrays, ByteBuffers, InputStreams or BufferedImages; an
+	 * image of any other type gets a failed result
+	 * @param listener notified of each result as it completes; may be null
+	 * @return the results, in the same order as the images
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the searches
+	 */
+	public List<BatchResult> search(Collection<?> images, Listener listener) throws InterruptedException {
+		BatchResult[] results = new BatchResult[images.size()];
+		ExecutorService executor = newExecutor(parallelism);
+		try {
+			CompletionService<BatchResult> completionService = new ExecutorCompletionService<>(executor);
+			int index = 0;
+			int running = 0;
+			for (Object image : images) {
+				//Wait for a search to complete before starting a new one once the limit has been reached
+				if (running == parallelism) {
+					collect(completionService, results, listener);
+					running--;
+				}
+				completionService.submit(new SearchTask(index++, image));
+				running++;
+			}
+			for (; running > 0; running--) {
+				collect(completionService, results, listener);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		List<BatchResult> list = new ArrayList<>(results.length);
+		for (BatchResult result : results) {
+			list.add(result);
+		}
+		return list;
+	}
+
+	private static void collect(CompletionService<BatchResult> completionService, BatchResult[] results, Listener listener)
+			throws InterruptedException {
+		BatchResult result;
+		try {
+			result = completionService.take().get();
+		} catch (ExecutionException e) {
+			//SearchTask catches everything, so this can only be an Error
+			throw new IllegalStateException(e.getCause());
+		}
+		results[result.getIndex()] = result;
+		if (listener != null) {
+			listener.onResult(result);
+		}
+	}
+
+	//Uses one virtual thread per search when running on a Java version which has them, a fixed pool otherwise
+	private static ExecutorService newExecutor(int parallelism) {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			return Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "jcraftar-batch-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+	private class SearchTask implements Callable<BatchResult> {
+
+		private final int index;
+		private final Object image;
+
+		SearchTask(int index, Object image) {
+			this.index = index;
+			this.image = image;
+		}
+
+		@Override
+		public BatchResult call() {
+			long start = System.nanoTime();
+			String fileName = image instanceof String ? (String) image : null;
+			try {
+				JSONObject result = Recognition.searchPrepared(token, prepare(), optionals);
+				return new BatchResult(index, fileName, result, null, System.nanoTime() - start);
+			} catch (Exception e) {
+				return new BatchResult(index, fileName, null, e, System.nanoTime() - start);
+			}
+		}
+
+		private byte[] prepare() throws IOException {
+			if (image instanceof String) {
+				return Recognition.prepareImageBytes((String) image, optionals);
+			} else if (image instanceof byte[]) {
+				return ImagePreprocessor.prepare((byte[]) image, optionals);
+			} else if (image instanceof ByteBuffer) {
+				return ImagePreprocessor.prepare((ByteBuffer) image, optionals);
+			} else if (image instanceof InputStream) {
+				return ImagePreprocessor.prepare((InputStream) image, optionals);
+			} else if (image instanceof BufferedImage) {
+				return ImagePreprocessor.prepare((BufferedImage) image, optionals);
+			}
+			throw new IllegalArgumentException(String.format("Wrong image type: %s",
+					image == null ? null : image.getClass().getName()));
+		}
+	}
+}
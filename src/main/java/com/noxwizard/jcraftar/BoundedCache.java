@@ -0,0 +1,133 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.CacheStats;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map keeping up to a maximum number of values, evicting the least recently used, each for a maximum time, with the
+ * counters of a cache. It is not thread safe: the caches built on it synchronize their own methods. Subclasses are
+ * told of every value leaving the map, so that they can keep their indexes in step.
+ *
+ * @author Stefano Zanini
+ */
+class BoundedCache<K, V> {
+
+	private final int maxEntries;
+	private final long ttlNanos;
+	private final LinkedHashMap<K, Expiring<V>> entries;
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long expirations;
+	private long invalidations;
+
+	BoundedCache(int maxEntries, long ttlMillis) {
+		this.maxEntries = maxEntries;
+		this.ttlNanos = ttlMillis * 1000000L;
+		//Access order makes the first entry the least recently used
+		this.entries = new LinkedHashMap<K, Expiring<V>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Expiring<V>> eldest) {
+				if (size() > BoundedCache.this.maxEntries) {
+					evictions++;
+					removed(eldest.getKey(), eldest.getValue().value);
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Checks the parameters of a cache
+	 *
+	 * @throws CatchoomException if the size or the TTL is not positive
+	 */
+	static void validate(int maxEntries, long ttlMillis) throws CatchoomException {
+		if (maxEntries < 1) {
+			CatchoomException ex = new CatchoomException(String.format("Wrong cache size: %s", maxEntries));
+			throw ex;
+		}
+		if (ttlMillis < 1) {
+			CatchoomException ex = new CatchoomException(String.format("Wrong cache TTL: %s", ttlMillis));
+			throw ex;
+		}
+	}
+
+	private static class Expiring<V> {
+
+		final V value;
+		final long expiresAt;
+
+		Expiring(V value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * Returns the value, marking it as recently used, or null if there is none or it has expired. Hits and misses are
+	 * left to the caller, which may look up more than one key for a request.
+	 */
+	V get(K key) {
+		Expiring<V> entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expiresAt - System.nanoTime() <= 0) {
+			entries.remove(key);
+			expirations++;
+			removed(key, entry.value);
+			return null;
+		}
+		return entry.value;
+	}
+
+	void put(K key, V value) {
+		Expiring<V> replaced = entries.put(key, new Expiring<>(value, System.nanoTime() + ttlNanos));
+		if (replaced != null) {
+			removed(key, replaced.value);
+		}
+	}
+
+	/**
+	 * Removes a value which is no longer valid, counting it as an invalidation
+	 */
+	void invalidate(K key) {
+		Expiring<V> entry = entries.remove(key);
+		if (entry != null) {
+			invalidations++;
+			removed(key, entry.value);
+		}
+	}
+
+	void hit() {
+		hits++;
+	}
+
+	void miss() {
+		misses++;
+	}
+
+	CacheStats getStats() {
+		//Expired entries still count until they are looked up, so drop them first
+		long now = System.nanoTime();
+		for (Iterator<Map.Entry<K, Expiring<V>>> it = entries.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<K, Expiring<V>> entry = it.next();
+			if (entry.getValue().expiresAt - now <= 0) {
+				it.remove();
+				expirations++;
+				removed(entry.getKey(), entry.getValue().value);
+			}
+		}
+		return new CacheStats(hits, misses, evictions, expirations, invalidations, entries.size());
+	}
+
+	/**
+	 * Called whenever a value leaves the map: evicted, expired, invalidated or replaced
+	 */
+	protected void removed(K key, V value) {
+	}
+}
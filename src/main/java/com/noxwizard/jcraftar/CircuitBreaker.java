@@ -0,0 +1,72 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.CircuitState;
+
+/**
+ * Stops sending requests to an endpoint after a number of consecutive failures, so that a struggling server gets time
+ * to recover and callers fail right away instead of piling up on it. Once the open time is over a single trial request
+ * goes through: its success closes the circuit, its failure opens it again.
+ *
+ * @author Stefano Zanini
+ */
+class CircuitBreaker {
+
+	private final String endpoint;
+	private final int failureThreshold;
+	private final long openNanos;
+	private CircuitState state = CircuitState.CLOSED;
+	private int failures;
+	private long openedAt;
+	private boolean trialInFlight;
+
+	CircuitBreaker(String endpoint, int failureThreshold, long openMillis) {
+		this.endpoint = endpoint;
+		this.failureThreshold = failureThreshold;
+		this.openNanos = openMillis * 1000000L;
+	}
+
+	/**
+	 * Lets a request through, or throws if the circuit is open
+	 */
+	synchronized void acquire() throws CircuitOpenException {
+		if (state == CircuitState.OPEN && System.nanoTime() - openedAt >= openNanos) {
+			state = CircuitState.HALF_OPEN;
+			trialInFlight = false;
+		}
+		if (state == CircuitState.OPEN || (state == CircuitState.HALF_OPEN && trialInFlight)) {
+			throw new CircuitOpenException(String.format("Too many failures from %s, not sending requests for now",
+					endpoint));
+		}
+		if (state == CircuitState.HALF_OPEN) {
+			trialInFlight = true;
+		}
+	}
+
+	synchronized void succeeded() {
+		state = CircuitState.CLOSED;
+		failures = 0;
+	}
+
+	synchronized void failed() {
+		failures++;
+		if (state == CircuitState.HALF_OPEN || failures >= failureThreshold) {
+			state = CircuitState.OPEN;
+			openedAt = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Tells that a request let through has been given up before its outcome was known, so that it doesn't hold the
+	 * trial of a half open circuit
+	 */
+	synchronized void abandoned() {
+		trialInFlight = false;
+	}
+
+	synchronized CircuitState getState() {
+		if (state == CircuitState.OPEN && System.nanoTime() - openedAt >= openNanos) {
+			return CircuitState.HALF_OPEN;
+		}
+		return state;
+	}
+}
@@ -0,0 +1,16 @@
+package com.noxwizard.jcraftar;
+
+import java.io.IOException;
+
+/**
+ * Thrown without contacting the server when the circuit breaker of an endpoint is open, because its latest requests
+ * kept failing.
+ *
+ * @author Stefano Zanini
+ */
+public class CircuitOpenException extends IOException {
+
+    public CircuitOpenException(String msg) {
+        super(msg);
+    }
+}
@@ -1,25 +1,24 @@
 package com.noxwizard.jcraftar;
 
-import java.io.BufferedReader;
+import com.noxwizard.jcraftar.datapassing.Page;
+import com.noxwizard.jcraftar.model.ManagementObject;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.Reader;
 import java.security.NoSuchAlgorithmException;
-import javax.net.ssl.SSLContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -30,13 +29,18 @@ import org.json.JSONObject;
  */
 class Commons {
 
-	//Forces the usage of TLS version 1.2, because Java 7 defaults to version 1 but the server won't accept that
-	private static SSLConnectionSocketFactory getSSLContext() throws NoSuchAlgorithmException {
-		return new SSLConnectionSocketFactory(
-				SSLContext.getDefault(),
-				new String[]{"TLSv1.2"},
-				null,
-				new NoopHostnameVerifier());
+	//Read-through cache of the objects fetched by uuid, null when disabled
+	private static volatile ObjectCache CACHE = null;
+
+	//Threads asking for the same object at the same time share a single request, since models are immutable
+	private static final SingleFlight<ManagementObject> GETS = new SingleFlight<>();
+
+	static void setCache(ObjectCache cache) {
+		CACHE = cache;
+	}
+
+	static ObjectCache getCache() {
+		return CACHE;
 	}
 
 	private static void validate(String objectType, JSONObject data, String uuid) throws CatchoomException {
@@ -77,45 +81,38 @@ class Commons {
 		}
 	}
 
-	private static void validateResponse(String response) throws CatchoomException {
-		try {
-			JSONObject jResponse = new JSONObject(response);
-			if (jResponse.has("error")) {
-				String msg = jResponse.getJSONObject("error").getString("message");
-				CatchoomException ex = new CatchoomException(msg);
-				throw ex;
-			}
+	//Parses the body of the response into model objects, turning malformed bodies and API errors into exceptions
+	private static ModelParser.Response readResponse(CloseableHttpResponse response, String objectType)
+			throws CatchoomException, IOException {
+		ModelParser.Response parsed;
+		if (response.getEntity() == null) {
+			throw new IOException("Empty response");
+		}
+		try (Reader reader = ResponseReader.open(response.getEntity())) {
+			parsed = ModelParser.parse(reader, objectType);
 		} catch (JSONException e) {
 			CatchoomException ex = new CatchoomException(e.getMessage());
 			throw ex;
 		}
+		validateResponse(parsed);
+		return parsed;
 	}
 
-	private static JSONObject parseObject(JSONObject object) {
-		//Remove resource_uri
-		if (object.has("resource_uri")) {
-			object.remove("resource_uri");
-		}
-		//Parse collection, item, app and version: set uuid instead of api uri
-		String[] keysToParse1 = {"collection", "item", "version", "app", "tag"};
-		for (String key : keysToParse1) {
-			if (object.has(key)) {
-				String[] splitVal = object.getString(key).split("/");
-				object.put(key, splitVal[splitVal.length - 2]);
-			}
+	private static ManagementObject readModel(CloseableHttpResponse response, String objectType)
+			throws CatchoomException, IOException {
+		ManagementObject model = readResponse(response, objectType).object;
+		if (model == null) {
+			CatchoomException ex = new CatchoomException("Not an object response");
+			throw ex;
 		}
-		//Parse collections and tags
-		String[] keysToParse2 = {"collections", "tags"};
-		for (String key : keysToParse2) {
-			if (object.has(key)) {
-				JSONArray array = object.getJSONArray(key);
-				for (int i = 0; i < array.length(); i++) {
-					String[] splitVal = array.getString(i).split("/");
-					array.put(i, splitVal[splitVal.length - 2]);
-				}
-			}
+		return model;
+	}
+
+	private static void validateResponse(ModelParser.Response response) throws CatchoomException {
+		if (response.error != null) {
+			CatchoomException ex = new CatchoomException(response.error.optString("message", response.error.toString()));
+			throw ex;
 		}
-		return object;
 	}
 
 	private static String getUrl(String apiKey, String objectType, String uuid, int limit, int offset, JSONObject filter)
@@ -148,107 +145,164 @@ class Commons {
 
 	static JSONArray getObjectList(String apiKey, String objectType, int limit, int offset, JSONObject filter, Proxy proxy)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		JSONArray objectList = new JSONArray();
+		return getObjectPage(apiKey, objectType, limit, offset, filter, proxy).getObjects();
+	}
+
+	static Page getObjectPage(String apiKey, String objectType, int limit, int offset, JSONObject filter, Proxy proxy)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		ModelParser.Response response = getModelPage(apiKey, objectType, limit, offset, filter, proxy);
+		JSONArray objects = new JSONArray();
+		for (ManagementObject object : response.objects) {
+			objects.put(object.toJSONObject());
+		}
+		return parsePage(response.meta, objects, limit, offset);
+	}
+
+	static <T extends ManagementObject> List<T> getModelList(String apiKey, String objectType, int limit, int offset,
+			JSONObject filter, Class<T> type, Proxy proxy) throws CatchoomException, IOException, NoSuchAlgorithmException {
+		List<T> models = new ArrayList<>();
+		for (ManagementObject object : getModelPage(apiKey, objectType, limit, offset, filter, proxy).objects) {
+			models.add(type.cast(object));
+		}
+		return models;
+	}
+
+	static <T extends ManagementObject> int visitObjectList(String apiKey, String objectType, int limit, int offset,
+			JSONObject filter, final Class<T> type, final ObjectVisitor<T> visitor, Proxy proxy)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		ModelParser.Response parsed;
 		validate(objectType, null, null);
 		String url = getUrl(apiKey, objectType, null, limit, offset, filter);
 
-		HttpClientBuilder clientBuilder = HttpClients.custom().setSSLSocketFactory(getSSLContext());
-		if (proxy != null) {
-			clientBuilder.setProxy(proxy.getHttpProxy());
-			if (proxy.isAuthenticated()) {
-				clientBuilder.setDefaultCredentialsProvider(proxy.getCredentialsProvider());
+		HttpGet request = new HttpGet(url);
+
+		try (CloseableHttpResponse response = HttpTransport.execute(request, proxy)) {
+			if (response.getEntity() == null) {
+				throw new IOException("Empty response");
+			}
+			Reader reader = ResponseReader.open(response.getEntity());
+			try {
+				parsed = ModelParser.parse(reader, objectType, new ModelParser.Consumer() {
+					@Override
+					public boolean accept(ManagementObject object) {
+						return visitor.visit(type.cast(object));
+					}
+				});
+				if (parsed.stopped) {
+					//Dropping the connection is cheaper than reading the rest of the objects
+					request.abort();
+				}
+			} catch (JSONException e) {
+				CatchoomException ex = new CatchoomException(e.getMessage());
+				throw ex;
+			} finally {
+				reader.close();
 			}
 		}
+		validateResponse(parsed);
+		if (!parsed.listed) {
+			CatchoomException ex = new CatchoomException("Not a list response");
+			throw ex;
+		}
+		return parsed.consumed;
+	}
 
-		try (CloseableHttpClient client = clientBuilder.build()) {
-			HttpGet request = new HttpGet(url);
+	private static ModelParser.Response getModelPage(String apiKey, String objectType, int limit, int offset,
+			JSONObject filter, Proxy proxy) throws CatchoomException, IOException, NoSuchAlgorithmException {
+		ModelParser.Response parsed;
+		validate(objectType, null, null);
+		String url = getUrl(apiKey, objectType, null, limit, offset, filter);
 
-			HttpResponse response = client.execute(request);
-			String output;
-			try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent()))) {
-				output = "";
-				String line;
-				while ((line = reader.readLine()) != null) {
-					output += line;
-				}
-			}
+		HttpGet request = new HttpGet(url);
 
-			validateResponse(output);
-			JSONObject jResponse = new JSONObject(output);
-			for (int i = 0; i < jResponse.getJSONArray("objects").length(); i++) {
-				JSONObject object = jResponse.getJSONArray("objects").getJSONObject(i);
-				objectList.put(parseObject(object));
-			}
+		try (CloseableHttpResponse response = HttpTransport.execute(request, proxy)) {
+			parsed = readResponse(response, objectType);
+		}
+		if (parsed.objects == null || parsed.meta == null) {
+			CatchoomException ex = new CatchoomException("Not a list response");
+			throw ex;
 		}
-		return objectList;
+		return parsed;
 	}
 
 	static int countObjectsInList(String apiKey, String objectType, JSONObject filter, Proxy proxy)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		int count;
-
-		validate(objectType, null, null);
-		String url = getUrl(apiKey, objectType, null, 1, 0, filter);
+		return getObjectPage(apiKey, objectType, 1, 0, filter, proxy).getTotalCount();
+	}
 
-		HttpClientBuilder clientBuilder = HttpClients.custom().setSSLSocketFactory(getSSLContext());
-		if (proxy != null) {
-			clientBuilder.setProxy(proxy.getHttpProxy());
-			if (proxy.isAuthenticated()) {
-				clientBuilder.setDefaultCredentialsProvider(proxy.getCredentialsProvider());
-			}
+	//Reads the meta of a list response; the requested limit and offset are used if meta lacks them
+	private static Page parsePage(JSONObject meta, JSONArray objects, int limit, int offset) throws CatchoomException {
+		try {
+			int pageOffset = meta.optInt("offset", Math.max(offset, 0));
+			int pageLimit = meta.optInt("limit", limit);
+			return new Page(
+					objects,
+					meta.getInt("total_count"),
+					pageOffset,
+					pageLimit,
+					getOffset(meta, "next", pageOffset + objects.length()),
+					getOffset(meta, "previous", Math.max(pageOffset - pageLimit, 0)));
+		} catch (JSONException e) {
+			CatchoomException ex = new CatchoomException(e.getMessage());
+			throw ex;
 		}
+	}
 
-		try (CloseableHttpClient client = clientBuilder.build()) {
-			HttpGet request = new HttpGet(url);
-
-			HttpResponse response = client.execute(request);
-			String output;
-			try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent()))) {
-				output = "";
-				String line;
-				while ((line = reader.readLine()) != null) {
-					output += line;
-				}
-			}
-
-			validateResponse(output);
-			JSONObject jResponse = new JSONObject(output);
-			count = jResponse.getJSONObject("meta").getInt("total_count");
+	//Extracts the offset parameter from the next or previous uri of meta, -1 if there is no such page
+	private static int getOffset(JSONObject meta, String key, int fallback) {
+		if (meta.isNull(key)) {
+			return -1;
+		}
+		String uri = meta.getString(key);
+		int start = uri.indexOf("offset=");
+		if (start < 0 || (start > 0 && uri.charAt(start - 1) != '?' && uri.charAt(start - 1) != '&')) {
+			return fallback;
 		}
-		return count;
+		start += "offset=".length();
+		int end = start;
+		while (end < uri.length() && Character.isDigit(uri.charAt(end))) {
+			end++;
+		}
+		return end > start ? Integer.parseInt(uri.substring(start, end)) : fallback;
 	}
 
 	static JSONObject getObject(String apiKey, String objectType, String uuid, Proxy proxy)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		JSONObject jResponse;
-		validate(objectType, null, uuid);
-		String url = getUrl(apiKey, objectType, uuid, -1, -1, null);
+		return getModel(apiKey, objectType, uuid, ManagementObject.class, proxy).toJSONObject();
+	}
 
-		HttpClientBuilder clientBuilder = HttpClients.custom().setSSLSocketFactory(getSSLContext());
-		if (proxy != null) {
-			clientBuilder.setProxy(proxy.getHttpProxy());
-			if (proxy.isAuthenticated()) {
-				clientBuilder.setDefaultCredentialsProvider(proxy.getCredentialsProvider());
+	static <T extends ManagementObject> T getModel(final String apiKey, final String objectType, final String uuid,
+			Class<T> type, final Proxy proxy) throws CatchoomException, IOException, NoSuchAlgorithmException {
+		validate(objectType, null, uuid);
+		final ObjectCache cache = CACHE;
+		if (cache != null) {
+			ManagementObject model = cache.get(apiKey, objectType, uuid);
+			if (model != null) {
+				return type.cast(model);
 			}
 		}
-
-		try (CloseableHttpClient client = clientBuilder.build()) {
-			HttpGet request = new HttpGet(url);
-
-			HttpResponse response = client.execute(request);
-			String output;
-			try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent()))) {
-				output = "";
-				String line;
-				while ((line = reader.readLine()) != null) {
-					output += line;
+		final String url = getUrl(apiKey, objectType, uuid, -1, -1, null);
+		return type.cast(GETS.execute(url, new Callable<ManagementObject>() {
+			@Override
+			public ManagementObject call() throws Exception {
+				ManagementObject model;
+				//Only the thread which made the request stores the object, and only if it wasn't changed meanwhile
+				long generation = cache != null ? cache.getGeneration() : 0;
+				HttpGet request = new HttpGet(url);
+
+				try (CloseableHttpResponse response = HttpTransport.execute(request, proxy)) {
+					model = readModel(response, objectType);
+				}
+				if (cache != null) {
+					cache.put(apiKey, objectType, uuid, model, generation);
 				}
+				return model;
 			}
+		}));
+	}
 
-			validateResponse(output);
-			jResponse = parseObject(new JSONObject(output));
-		}
-		return jResponse;
+	static long getCoalescedCalls() {
+		return GETS.getCoalesced();
 	}
 
 	static JSONObject createObject(String apiKey, String objectType, JSONObject data, Proxy proxy)
@@ -257,34 +311,15 @@ class Commons {
 		validate(objectType, data, null);
 		String url = getUrl(apiKey, objectType, null, -1, -1, null);
 
-		HttpClientBuilder clientBuilder = HttpClients.custom().setSSLSocketFactory(getSSLContext());
-		if (proxy != null) {
-			clientBuilder.setProxy(proxy.getHttpProxy());
-			if (proxy.isAuthenticated()) {
-				clientBuilder.setDefaultCredentialsProvider(proxy.getCredentialsProvider());
-			}
-		}
-
-		try (CloseableHttpClient client = clientBuilder.build()) {
-			HttpPost request = new HttpPost(url);
-			Header[] headers = {
-				new BasicHeader("User-Agent", Settings.USER_AGENT),
-				new BasicHeader("content-type", "application/json")};
-			request.setHeaders(headers);
-			request.setEntity(new StringEntity(data.toString()));
-
-			HttpResponse response = client.execute(request);
-			String output;
-			try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent()))) {
-				output = "";
-				String line;
-				while ((line = reader.readLine()) != null) {
-					output += line;
-				}
-			}
+		HttpPost request = new HttpPost(url);
+		Header[] headers = {
+			new BasicHeader("User-Agent", Settings.USER_AGENT),
+			new BasicHeader("content-type", "application/json")};
+		request.setHeaders(headers);
+		request.setEntity(new StringEntity(data.toString()));
 
-			validateResponse(output);
-			jResponse = parseObject(new JSONObject(output));
+		try (CloseableHttpResponse response = HttpTransport.execute(request, proxy)) {
+			jResponse = readModel(response, objectType).toJSONObject();
 		}
 		return jResponse;
 	}
@@ -295,40 +330,20 @@ class Commons {
 		validate(objectType, data, null);
 		String url = getUrl(apiKey, objectType, null, -1, -1, null);
 
-		HttpClientBuilder clientBuilder = HttpClients.custom().setSSLSocketFactory(getSSLContext());
-		if (proxy != null) {
-			clientBuilder.setProxy(proxy.getHttpProxy());
-			if (proxy.isAuthenticated()) {
-				clientBuilder.setDefaultCredentialsProvider(proxy.getCredentialsProvider());
+		HttpPost request = new HttpPost(url);
+		Header[] headers = {new BasicHeader("User-Agent", Settings.USER_AGENT)};
+		request.setHeaders(headers);
+		MultipartEntityBuilder mpeb = MultipartEntityBuilder.create().addBinaryBody("file", file);
+		if (data != null) {
+			for (String k : data.keySet()) {
+				mpeb = mpeb.addTextBody(k, data.getString(k));
 			}
 		}
+		HttpEntity entity = mpeb.build();
+		request.setEntity(entity);
 
-		try (CloseableHttpClient client = clientBuilder.build()) {
-			HttpPost request = new HttpPost(url);
-			Header[] headers = {new BasicHeader("User-Agent", Settings.USER_AGENT)};
-			request.setHeaders(headers);
-			MultipartEntityBuilder mpeb = MultipartEntityBuilder.create().addBinaryBody("file", file);
-			if (data != null) {
-				for (String k : data.keySet()) {
-					mpeb = mpeb.addTextBody(k, data.getString(k));
-				}
-			}
-			HttpEntity entity = mpeb.build();
-			request.setEntity(entity);
-
-			HttpResponse response = client.execute(request);
-			String output;
-			try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent()))) {
-				output = "";
-				String line;
-				while ((line = reader.readLine()) != null) {
-					output += line;
-				}
-			}
-
-			validateResponse(output);
-			jResponse = parseObject(new JSONObject(output));
-
+		try (CloseableHttpResponse response = HttpTransport.execute(request, proxy)) {
+			jResponse = readModel(response, objectType).toJSONObject();
 		}
 		return jResponse;
 	}
@@ -339,25 +354,19 @@ class Commons {
 		validate(objectType, data, uuid);
 		String url = getUrl(apiKey, objectType, uuid, -1, -1, null);
 
-		HttpClientBuilder clientBuilder = HttpClients.custom().setSSLSocketFactory(getSSLContext());
-		if (proxy != null) {
-			clientBuilder.setProxy(proxy.getHttpProxy());
-			if (proxy.isAuthenticated()) {
-				clientBuilder.setDefaultCredentialsProvider(proxy.getCredentialsProvider());
-			}
-		}
-
-		try (CloseableHttpClient client = clientBuilder.build()) {
-			HttpPost request = new HttpPost(url);
-			Header[] headers = {
-				new BasicHeader("User-Agent", Settings.USER_AGENT),
-				new BasicHeader("content-type", "application/json")};
-			request.setHeaders(headers);
-			request.setEntity(new StringEntity(data.toString()));
+		HttpPost request = new HttpPost(url);
+		Header[] headers = {
+			new BasicHeader("User-Agent", Settings.USER_AGENT),
+			new BasicHeader("content-type", "application/json")};
+		request.setHeaders(headers);
+		request.setEntity(new StringEntity(data.toString()));
 
-			HttpResponse response = client.execute(request);
+		try (CloseableHttpResponse response = HttpTransport.execute(request, proxy)) {
+			EntityUtils.consume(response.getEntity());
 			jResponse.put("statusCode", response.getStatusLine().getStatusCode());
 			jResponse.put("message", response.getStatusLine().getReasonPhrase());
+		} finally {
+			invalidate(objectType, uuid, url);
 		}
 		return jResponse;
 	}
@@ -368,37 +377,20 @@ class Commons {
 		validate(objectType, data, uuid);
 		String url = getUrl(apiKey, objectType, uuid, -1, -1, null);
 
-		HttpClientBuilder clientBuilder = HttpClients.custom().setSSLSocketFactory(getSSLContext());
-		if (proxy != null) {
-			clientBuilder.setProxy(proxy.getHttpProxy());
-			if (proxy.isAuthenticated()) {
-				clientBuilder.setDefaultCredentialsProvider(proxy.getCredentialsProvider());
-			}
-		}
-
-		try (CloseableHttpClient client = clientBuilder.build()) {
-			HttpPost request = new HttpPost(url);
-			Header[] headers = {new BasicHeader("User-Agent", Settings.USER_AGENT)};
-			request.setHeaders(headers);
-			HttpEntity entity = MultipartEntityBuilder
-					.create()
-					.addBinaryBody("files", file)
-					.addTextBody("data", data.toString())
-					.build();
-			request.setEntity(entity);
-
-			HttpResponse response = client.execute(request);
-			String output;
-			try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent()))) {
-				output = "";
-				String line;
-				while ((line = reader.readLine()) != null) {
-					output += line;
-				}
-			}
-
-			validateResponse(output);
-			jResponse = parseObject(new JSONObject(output));
+		HttpPost request = new HttpPost(url);
+		Header[] headers = {new BasicHeader("User-Agent", Settings.USER_AGENT)};
+		request.setHeaders(headers);
+		HttpEntity entity = MultipartEntityBuilder
+				.create()
+				.addBinaryBody("files", file)
+				.addTextBody("data", data.toString())
+				.build();
+		request.setEntity(entity);
+
+		try (CloseableHttpResponse response = HttpTransport.execute(request, proxy)) {
+			jResponse = readModel(response, objectType).toJSONObject();
+		} finally {
+			invalidate(objectType, uuid, url);
 		}
 		return jResponse;
 	}
@@ -409,21 +401,24 @@ class Commons {
 		validate(objectType, null, uuid);
 		String url = getUrl(apiKey, objectType, uuid, -1, -1, null);
 
-		HttpClientBuilder clientBuilder = HttpClients.custom().setSSLSocketFactory(getSSLContext());
-		if (proxy != null) {
-			clientBuilder.setProxy(proxy.getHttpProxy());
-			if (proxy.isAuthenticated()) {
-				clientBuilder.setDefaultCredentialsProvider(proxy.getCredentialsProvider());
-			}
-		}
-
-		try (CloseableHttpClient client = clientBuilder.build()) {
-			HttpDelete request = new HttpDelete(url);
-			HttpResponse response = client.execute(request);
-
+		HttpDelete request = new HttpDelete(url);
+		try (CloseableHttpResponse response = HttpTransport.execute(request, proxy)) {
+			EntityUtils.consume(response.getEntity());
 			jResponse.put("statusCode", response.getStatusLine().getStatusCode());
 			jResponse.put("message", response.getStatusLine().getReasonPhrase());
+		} finally {
+			invalidate(objectType, uuid, url);
 		}
 		return jResponse;
 	}
+
+	//Drops the cached copy of an object which may have been changed, even if the request failed halfway, and keeps
+	//later reads from joining a read of it which started before the change
+	private static void invalidate(String objectType, String uuid, String url) {
+		GETS.forget(url);
+		ObjectCache cache = CACHE;
+		if (cache != null) {
+			cache.invalidate(objectType, uuid);
+		}
+	}
 }
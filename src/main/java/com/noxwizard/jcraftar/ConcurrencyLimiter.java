@@ -0,0 +1,251 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.ConcurrencyStats;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.http.HttpResponse;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+/**
+ * Limits how many requests are in flight at once, adapting the limit to the round trip times in the way of TCP Vegas.
+ * The lowest recent round trip time tells how long a request takes when the server isn't queueing it, so the ratio
+ * between it and each new round trip time estimates how many requests are queued at the server: the limit grows while
+ * that queue stays short, and shrinks when it gets long. Requests which time out, or are answered with 429 or a 5xx
+ * status, cut the limit by a tenth. Requests over the limit wait in line, first come first served. A permit is taken
+ * right before sending each attempt of a request, so that the round trip times leave out the waits for the rate
+ * limiter and between retries.
+ *
+ * @author Stefano Zanini
+ */
+class ConcurrencyLimiter {
+
+	//The lowest round trip time is taken over the last one or two windows of this many requests, so that it follows a
+	//lasting change of the server's latency
+	private static final int RTT_WINDOW = 200;
+	private static final double RTT_SMOOTHING = 0.05;
+	private static final double BACKOFF = 0.9;
+
+	private final int maxLimit;
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong queueNanos = new AtomicLong();
+	//Guarded by this
+	private final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+	private double limit;
+	private int inFlight;
+	private double smoothedRtt = -1;
+	private long windowMinRtt = Long.MAX_VALUE;
+	private long previousMinRtt = Long.MAX_VALUE;
+	private int windowSamples;
+
+	ConcurrencyLimiter(int initialLimit, int maxLimit) {
+		this.limit = initialLimit;
+		this.maxLimit = maxLimit;
+	}
+
+	/**
+	 * Waits for the number of requests in flight to be under the limit
+	 *
+	 * @return the permit to be released once the request is over
+	 * @throws InterruptedIOException if the calling thread is interrupted while waiting
+	 */
+	Permit acquire() throws InterruptedIOException {
+		Future<Permit> future = acquireAsync(null);
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			//The permit may have been granted meanwhile
+			if (!future.cancel(false)) {
+				abandon(future);
+			}
+			Thread.currentThread().interrupt();
+			InterruptedIOException ex = new InterruptedIOException("Interrupted while waiting for the concurrency limit");
+			ex.initCause(e);
+			throw ex;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Takes a permit without blocking the calling thread
+	 *
+	 * @param callback notified with the permit once granted, on the thread releasing the previous one, or on the
+	 * calling thread if it is granted right away; may be null
+	 * @return a future which completes with the permit, and which can be cancelled to leave the line
+	 */
+	Future<Permit> acquireAsync(FutureCallback<Permit> callback) {
+		Waiter waiter = new Waiter(callback);
+		boolean granted = false;
+		synchronized (this) {
+			if (waiting.isEmpty() && inFlight < (int) limit) {
+				inFlight++;
+				granted = true;
+			} else {
+				waiting.add(waiter);
+			}
+		}
+		if (granted) {
+			grant(waiter);
+		}
+		return waiter;
+	}
+
+	ConcurrencyStats getStats() {
+		long count = requests.get();
+		double queueMillis = count == 0 ? 0 : queueNanos.get() / 1e6 / count;
+		synchronized (this) {
+			long minRtt = Math.min(windowMinRtt, previousMinRtt);
+			return new ConcurrencyStats((int) limit, inFlight, waiting.size(), count, dropped.get(), queueMillis,
+					smoothedRtt < 0 ? -1 : smoothedRtt / 1e6, minRtt == Long.MAX_VALUE ? -1 : minRtt / 1e6);
+		}
+	}
+
+	private void grant(Waiter waiter) {
+		long now = System.nanoTime();
+		Permit permit;
+		synchronized (this) {
+			permit = new Permit(now, inFlight);
+		}
+		if (waiter.completed(permit)) {
+			requests.incrementAndGet();
+			queueNanos.addAndGet(now - waiter.enqueued);
+		} else {
+			//Cancelled while granted
+			permit.abandon();
+		}
+	}
+
+	private static void abandon(Future<Permit> future) {
+		try {
+			future.get().abandon();
+		} catch (InterruptedException | ExecutionException e) {
+			//A completed future returns right away
+		}
+	}
+
+	private void release(Permit permit, boolean sample, boolean overloaded) {
+		long rtt = System.nanoTime() - permit.start;
+		List<Waiter> granted = new ArrayList<>();
+		synchronized (this) {
+			inFlight--;
+			if (sample) {
+				update(rtt, permit.inFlight, overloaded);
+			}
+			while (!waiting.isEmpty() && inFlight < (int) limit) {
+				inFlight++;
+				granted.add(waiting.poll());
+			}
+		}
+		for (Waiter waiter : granted) {
+			grant(waiter);
+		}
+	}
+
+	//Guarded by this
+	private void update(long rtt, int sampleInFlight, boolean overloaded) {
+		smoothedRtt = smoothedRtt < 0 ? rtt : smoothedRtt + RTT_SMOOTHING * (rtt - smoothedRtt);
+		if (overloaded) {
+			dropped.incrementAndGet();
+			limit = Math.max(1, limit * BACKOFF);
+			return;
+		}
+		windowMinRtt = Math.min(windowMinRtt, rtt);
+		if (++windowSamples == RTT_WINDOW) {
+			previousMinRtt = windowMinRtt;
+			windowMinRtt = Long.MAX_VALUE;
+			windowSamples = 0;
+		}
+		long minRtt = Math.min(windowMinRtt, previousMinRtt);
+		//The queue is estimated from the requests in flight when this one started, rather than from the limit
+		double queue = sampleInFlight * (1 - (double) minRtt / rtt);
+		//Thresholds grow slowly with the limit, so that a large limit tolerates a longer queue
+		double threshold = Math.max(1, Math.log10(limit));
+		if (queue > 6 * threshold) {
+			limit -= threshold / limit;
+		} else if (sampleInFlight * 2 < limit) {
+			//A limit which isn't used says nothing about a higher one
+			return;
+		} else if (queue <= threshold) {
+			//Doubles the limit within a round trip, each request in flight adding one
+			limit += 1;
+		} else if (queue < 3 * threshold) {
+			limit += threshold / limit;
+		}
+		limit = Math.max(1, Math.min(maxLimit, limit));
+	}
+
+	/**
+	 * The right of a request to be in flight, to be released once the request is over
+	 */
+	class Permit {
+
+		private final long start;
+		private final int inFlight;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		Permit(long start, int inFlight) {
+			this.start = start;
+			this.inFlight = inFlight;
+		}
+
+		/**
+		 * Releases the permit of a request answered by the server, updating the limit with its round trip time; 429
+		 * and 5xx answers mean that the server is overloaded
+		 */
+		void release(HttpResponse response) {
+			int status = response.getStatusLine().getStatusCode();
+			release(true, status == 429 || status >= 500);
+		}
+
+		/**
+		 * Releases the permit of a request which failed. Timeouts and dropped connections mean that the server is
+		 * overloaded, while other failures, such as unknown hosts, leave the limit unchanged.
+		 */
+		void release(Exception failure) {
+			boolean overloaded = HttpTransport.isTransient(failure);
+			release(overloaded, overloaded);
+		}
+
+		/**
+		 * Releases the permit of a request which hasn't been carried out, leaving the limit unchanged
+		 */
+		void abandon() {
+			release(false, false);
+		}
+
+		private void release(boolean sample, boolean overloaded) {
+			if (released.compareAndSet(false, true)) {
+				ConcurrencyLimiter.this.release(this, sample, overloaded);
+			}
+		}
+
+	}
+
+	private class Waiter extends BasicFuture<Permit> {
+
+		private final long enqueued = System.nanoTime();
+
+		Waiter(FutureCallback<Permit> callback) {
+			super(callback);
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				synchronized (ConcurrencyLimiter.this) {
+					waiting.remove(this);
+				}
+			}
+			return cancelled;
+		}
+	}
+}
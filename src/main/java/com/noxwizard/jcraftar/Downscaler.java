@@ -0,0 +1,206 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.ScalingQuality;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+/**
+ * Resizes images working directly on the byte arrays of their rasters. Grayscale (TYPE_BYTE_GRAY) and color
+ * (TYPE_3BYTE_BGR) images, which is what the JPEG decoder produces, are read in place; any other type is converted to
+ * one of them first. Apart from the result, only a few rows worth of buffers are allocated.
+ *
+ * @author Stefano Zanini
+ */
+class Downscaler {
+
+	private Downscaler() {
+	}
+
+	/**
+	 * Returns a resized copy of the image
+	 *
+	 * @param input the image to resize, left untouched
+	 * @param newWidth the width of the result
+	 * @param newHeight the height of the result
+	 * @param quality the filter used when reducing; enlargements are always bilinear
+	 * @return a TYPE_BYTE_GRAY image if the input was one, a TYPE_3BYTE_BGR image otherwise
+	 */
+	static BufferedImage resize(BufferedImage input, int newWidth, int newHeight, ScalingQuality quality) {
+		BufferedImage source = toCompact(input);
+		int channels = source.getType() == BufferedImage.TYPE_BYTE_GRAY ? 1 : 3;
+		byte[] pixels = ((DataBufferByte) source.getRaster().getDataBuffer()).getData();
+		int width = source.getWidth();
+		int height = source.getHeight();
+		BufferedImage output = new BufferedImage(newWidth, newHeight, source.getType());
+		byte[] result = ((DataBufferByte) output.getRaster().getDataBuffer()).getData();
+
+		boolean reducing = newWidth <= width && newHeight <= height;
+		if (reducing && quality == ScalingQuality.QUALITY) {
+			areaAverage(pixels, width, height, result, newWidth, newHeight, channels);
+		} else {
+			if (reducing && quality == ScalingQuality.BALANCED) {
+				//Halve with a 2x2 box while the image is still at least twice as big as the result
+				while (width / 2 >= newWidth && height / 2 >= newHeight) {
+					pixels = halve(pixels, width, height, channels);
+					width /= 2;
+					height /= 2;
+				}
+			}
+			bilinear(pixels, width, height, result, newWidth, newHeight, channels);
+		}
+		return output;
+	}
+
+	//Returns an image whose raster is a tightly packed byte array with one or three interleaved channels
+	private static BufferedImage toCompact(BufferedImage input) {
+		int type = input.getType();
+		if (type == BufferedImage.TYPE_BYTE_GRAY || type == BufferedImage.TYPE_3BYTE_BGR) {
+			WritableRaster raster = input.getRaster();
+			ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+			int channels = type == BufferedImage.TYPE_BYTE_GRAY ? 1 : 3;
+			if (raster.getDataBuffer().getOffset() == 0
+					&& raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0
+					&& sm.getPixelStride() == channels && sm.getScanlineStride() == input.getWidth() * channels) {
+				return input;
+			}
+		}
+		BufferedImage compact = new BufferedImage(input.getWidth(), input.getHeight(),
+				type == BufferedImage.TYPE_BYTE_GRAY ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_3BYTE_BGR);
+		Graphics2D g2d = compact.createGraphics();
+		g2d.drawImage(input, 0, 0, null);
+		g2d.dispose();
+		return compact;
+	}
+
+	//Box filter with exact fractional coverage, applied one output row at a time
+	private static void areaAverage(byte[] src, int width, int height, byte[] dst, int newWidth, int newHeight,
+			int channels) {
+		float scaleX = (float) width / newWidth;
+		float scaleY = (float) height / newHeight;
+		//Horizontal contributions of each source column, computed once
+		int[] first = new int[newWidth];
+		int[] last = new int[newWidth];
+		float[] firstWeight = new float[newWidth];
+		float[] lastWeight = new float[newWidth];
+		for (int x = 0; x < newWidth; x++) {
+			float start = x * scaleX;
+			float end = Math.min((x + 1) * scaleX, width);
+			first[x] = (int) start;
+			last[x] = Math.min((int) Math.ceil(end) - 1, width - 1);
+			firstWeight[x] = Math.min(first[x] + 1, end) - start;
+			lastWeight[x] = last[x] > first[x] ? end - last[x] : 0;
+		}
+
+		int rowLength = newWidth * channels;
+		float[] row = new float[rowLength];
+		float[] sum = new float[rowLength];
+		int cachedRow = -1;
+		float area = scaleX * scaleY;
+		for (int y = 0; y < newHeight; y++) {
+			float start = y * scaleY;
+			float end = Math.min((y + 1) * scaleY, height);
+			int firstRow = (int) start;
+			int lastRow = Math.min((int) Math.ceil(end) - 1, height - 1);
+			Arrays.fill(sum, 0);
+			for (int sy = firstRow; sy <= lastRow; sy++) {
+				float weightY = Math.min(sy + 1, end) - Math.max(sy, start);
+				//The last row of an output row is often the first of the next one
+				if (sy != cachedRow) {
+					sumRow(src, sy * width * channels, first, last, firstWeight, lastWeight, row, channels);
+					cachedRow = sy;
+				}
+				for (int i = 0; i < rowLength; i++) {
+					sum[i] += row[i] * weightY;
+				}
+			}
+			int offset = y * rowLength;
+			for (int i = 0; i < rowLength; i++) {
+				dst[offset + i] = (byte) Math.min(255, (int) (sum[i] / area + 0.5f));
+			}
+		}
+	}
+
+	//Sums the source pixels covered by each output column of one row, weighted by their horizontal coverage
+	private static void sumRow(byte[] src, int rowOffset, int[] first, int[] last, float[] firstWeight,
+			float[] lastWeight, float[] row, int channels) {
+		for (int x = 0; x < first.length; x++) {
+			for (int c = 0; c < channels; c++) {
+				int pos = rowOffset + first[x] * channels + c;
+				float total = (src[pos] & 0xff) * firstWeight[x];
+				int inner = 0;
+				for (int sx = first[x] + 1; sx < last[x]; sx++) {
+					pos += channels;
+					inner += src[pos] & 0xff;
+				}
+				total += inner;
+				if (last[x] > first[x]) {
+					total += (src[rowOffset + last[x] * channels + c] & 0xff) * lastWeight[x];
+				}
+				row[x * channels + c] = total;
+			}
+		}
+	}
+
+	private static byte[] halve(byte[] src, int width, int height, int channels) {
+		int newWidth = width / 2;
+		int newHeight = height / 2;
+		byte[] dst = new byte[newWidth * newHeight * channels];
+		int stride = width * channels;
+		int pos = 0;
+		for (int y = 0; y < newHeight; y++) {
+			int top = 2 * y * stride;
+			int bottom = top + stride;
+			for (int x = 0; x < newWidth; x++) {
+				int left = 2 * x * channels;
+				for (int c = 0; c < channels; c++) {
+					int a = src[top + left + c] & 0xff;
+					int b = src[top + left + channels + c] & 0xff;
+					int d = src[bottom + left + c] & 0xff;
+					int e = src[bottom + left + channels + c] & 0xff;
+					dst[pos++] = (byte) ((a + b + d + e + 2) >> 2);
+				}
+			}
+		}
+		return dst;
+	}
+
+	private static void bilinear(byte[] src, int width, int height, byte[] dst, int newWidth, int newHeight,
+			int channels) {
+		//Source columns and weights of each output column, computed once
+		int[] left = new int[newWidth];
+		int[] right = new int[newWidth];
+		float[] weightX = new float[newWidth];
+		float scaleX = (float) width / newWidth;
+		for (int x = 0; x < newWidth; x++) {
+			float sx = Math.max(0, Math.min((x + 0.5f) * scaleX - 0.5f, width - 1));
+			left[x] = (int) sx;
+			right[x] = Math.min(left[x] + 1, width - 1);
+			weightX[x] = sx - left[x];
+		}
+		float scaleY = (float) height / newHeight;
+		int stride = width * channels;
+		int pos = 0;
+		for (int y = 0; y < newHeight; y++) {
+			float sy = Math.max(0, Math.min((y + 0.5f) * scaleY - 0.5f, height - 1));
+			int top = (int) sy;
+			int bottom = Math.min(top + 1, height - 1);
+			float weightY = sy - top;
+			int topOffset = top * stride;
+			int bottomOffset = bottom * stride;
+			for (int x = 0; x < newWidth; x++) {
+				int l = left[x] * channels;
+				int r = right[x] * channels;
+				float wx = weightX[x];
+				for (int c = 0; c < channels; c++) {
+					float upper = (src[topOffset + l + c] & 0xff) * (1 - wx) + (src[topOffset + r + c] & 0xff) * wx;
+					float lower = (src[bottomOffset + l + c] & 0xff) * (1 - wx) + (src[bottomOffset + r + c] & 0xff) * wx;
+					dst[pos++] = (byte) (upper * (1 - weightY) + lower * weightY + 0.5f);
+				}
+			}
+		}
+	}
+}
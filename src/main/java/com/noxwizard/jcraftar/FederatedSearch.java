@@ -0,0 +1,253 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.SearchParameters;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.concurrent.FutureCallback;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Searches an image against several collections at once. The image is prepared a single time and the same bytes are
+ * sent to all the collections in parallel on the non-blocking client; the results are then merged into a single
+ * response, best score first, each one tagged with the token of its collection. When an early exit score is set, the
+ * search returns as soon as any collection answers with a result scoring at least that much, cancelling the requests
+ * still waiting. In any case the search returns once its timeout has elapsed, with the answers received so far.
+ * <p>
+ * The response has the same <i>results</i> array of a single search, plus an <i>errors</i> object mapping the tokens
+ * of the collections which failed to the failure message, and a <i>pending</i> array with the tokens of the
+ * collections not waited for after an early exit or the timeout; both are omitted when empty.
+ *
+ * @author Stefano Zanini
+ */
+public class FederatedSearch {
+
+	private final List<String> tokens;
+	private final SearchParameters optionals;
+	private int topK = 10;
+	private double earlyExitScore = Double.POSITIVE_INFINITY;
+	private long timeoutMillis = 30000;
+
+	/**
+	 * @param tokens Catchoom collection tokens; duplicates are searched once
+	 * @param optionals optional parameters for Catchoom search, shared by all the collections
+	 */
+	public FederatedSearch(Collection<String> tokens, SearchParameters optionals) {
+		if (tokens.isEmpty()) {
+			throw new IllegalArgumentException("At least a token is required");
+		}
+		this.tokens = new ArrayList<>(new LinkedHashSet<>(tokens));
+		this.optionals = optionals;
+	}
+
+	public int getTopK() {
+		return topK;
+	}
+
+	/**
+	 * Sets the maximum number of results of the merged response
+	 *
+	 * @param topK a positive number, 10 by default
+	 * @return this federated search
+	 */
+	public FederatedSearch setTopK(int topK) {
+		if (topK < 1) {
+			throw new IllegalArgumentException(String.format("Wrong number of results: %s", topK));
+		}
+		this.topK = topK;
+		return this;
+	}
+
+	public double getEarlyExitScore() {
+		return earlyExitScore;
+	}
+
+	/**
+	 * Sets the score of a match confident enough to stop waiting for the other collections
+	 *
+	 * @param earlyExitScore the minimum score, or Double.POSITIVE_INFINITY, the default, to always wait for all the
+	 * collections
+	 * @return this federated search
+	 */
+	public FederatedSearch setEarlyExitScore(double earlyExitScore) {
+		this.earlyExitScore = earlyExitScore;
+		return this;
+	}
+
+	public long getTimeoutMillis() {
+		return timeoutMillis;
+	}
+
+	/**
+	 * Sets how long a search waits for the collections overall, after which those still waiting are reported as
+	 * pending
+	 *
+	 * @param timeoutMillis a positive number of milliseconds, 30000 by default
+	 * @return this federated search
+	 */
+	public FederatedSearch setTimeoutMillis(long timeoutMillis) {
+		if (timeoutMillis < 1) {
+			throw new IllegalArgumentException(String.format("Wrong timeout: %s", timeoutMillis));
+		}
+		this.timeoutMillis = timeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Searches the image in all the collections
+	 *
+	 * @param fileName the path to the image to search
+	 * @return a JSON object containing the merged results of the search
+	 * @throws IOException if the file can't be found
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the searches
+	 */
+	public JSONObject search(String fileName) throws IOException, InterruptedException {
+		return searchPrepared(Recognition.prepareImageBytes(fileName, optionals));
+	}
+
+	/**
+	 * Searches the image in all the collections
+	 *
+	 * @param image the encoded image to search
+	 * @return a JSON object containing the merged results of the search
+	 * @throws IOException if the image can't be decoded
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the searches
+	 */
+	public JSONObject search(byte[] image) throws IOException, InterruptedException {
+		return searchPrepared(ImagePreprocessor.prepare(image, optionals));
+	}
+
+	/**
+	 * Searches the image in all the collections
+	 *
+	 * @param image the image to search, left untouched
+	 * @return a JSON object containing the merged results of the search
+	 * @throws IOException if the image can't be encoded
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the searches
+	 */
+	public JSONObject search(BufferedImage image) throws IOException, InterruptedException {
+		return searchPrepared(ImagePreprocessor.prepare(image, optionals));
+	}
+
+	private JSONObject searchPrepared(byte[] image) throws InterruptedException {
+		long start = System.nanoTime();
+		long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		BlockingQueue<Answer> answers = new LinkedBlockingQueue<>();
+		List<JSONFuture> futures = new ArrayList<>(tokens.size());
+		List<JSONObject> results = new ArrayList<>();
+		JSONObject errors = new JSONObject();
+		Set<String> pending = new LinkedHashSet<>(tokens);
+		try {
+			for (String token : tokens) {
+				JSONFuture future = new JSONFuture(new AnswerCallback(token, answers));
+				futures.add(future);
+				try {
+					future.setRequest(Recognition.searchPreparedAsync(token, image, optionals, future.getResponseCallback()));
+				} catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+					future.failed(e);
+				}
+			}
+			boolean confident = false;
+			while (!pending.isEmpty() && !confident) {
+				Answer answer = answers.poll(timeoutNanos - (System.nanoTime() - start), TimeUnit.NANOSECONDS);
+				if (answer == null) {
+					//Timed out, the collections still waiting stay pending
+					break;
+				}
+				pending.remove(answer.token);
+				if (answer.error != null) {
+					errors.put(answer.token, String.valueOf(answer.error.getMessage()));
+					continue;
+				}
+				JSONArray tokenResults = answer.result.optJSONArray("results");
+				for (int i = 0; tokenResults != null && i < tokenResults.length(); i++) {
+					JSONObject result = tokenResults.getJSONObject(i);
+					result.put("token", answer.token);
+					results.add(result);
+					confident |= result.optDouble("score", 0) >= earlyExitScore;
+				}
+				Object error = answer.result.opt("error");
+				if (error instanceof JSONObject) {
+					errors.put(answer.token, ((JSONObject) error).optString("message", error.toString()));
+				} else if (error != null) {
+					errors.put(answer.token, error.toString());
+				}
+			}
+		} finally {
+			//Stops the requests still waiting after an early exit, a timeout or an interruption
+			for (JSONFuture future : futures) {
+				future.cancel(true);
+			}
+		}
+		return merge(results, errors, pending);
+	}
+
+	private JSONObject merge(List<JSONObject> results, JSONObject errors, Set<String> pending) {
+		Collections.sort(results, new Comparator<JSONObject>() {
+			@Override
+			public int compare(JSONObject o1, JSONObject o2) {
+				return Double.compare(o2.optDouble("score", 0), o1.optDouble("score", 0));
+			}
+		});
+		JSONObject response = new JSONObject();
+		response.put("results", new JSONArray(results.subList(0, Math.min(topK, results.size()))));
+		if (errors.length() > 0) {
+			response.put("errors", errors);
+		}
+		if (!pending.isEmpty()) {
+			response.put("pending", new JSONArray(pending));
+		}
+		return response;
+	}
+
+	private static class Answer {
+
+		final String token;
+		final JSONObject result;
+		final Exception error;
+
+		Answer(String token, JSONObject result, Exception error) {
+			this.token = token;
+			this.result = result;
+			this.error = error;
+		}
+	}
+
+	//Hands the outcome of a collection's search to the thread merging them
+	private static class AnswerCallback implements FutureCallback<JSONObject> {
+
+		private final String token;
+		private final BlockingQueue<Answer> answers;
+
+		AnswerCallback(String token, BlockingQueue<Answer> answers) {
+			this.token = token;
+			this.answers = answers;
+		}
+
+		@Override
+		public void completed(JSONObject result) {
+			answers.add(new Answer(token, result, null));
+		}
+
+		@Override
+		public void failed(Exception ex) {
+			answers.add(new Answer(token, null, ex));
+		}
+
+		@Override
+		public void cancelled() {
+			//Only the merging thread cancels, once it has stopped waiting
+		}
+	}
+}
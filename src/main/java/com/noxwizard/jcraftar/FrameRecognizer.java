@@ -0,0 +1,307 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.FrameStats;
+import com.noxwizard.jcraftar.datapassing.SearchParameters;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.http.HttpResponse;
+import org.apache.http.concurrent.FutureCallback;
+import org.json.JSONObject;
+
+/**
+ * Searches the frames of a camera or video stream against the same collection, sending only the frames worth a request.
+ * Submitting a frame never blocks: frames wait in a single slot, and a frame submitted while the previous one is still
+ * waiting replaces it, so that when the network falls behind only the latest frame is searched. A background thread
+ * takes the waiting frame as soon as there is a free slot for requests in flight, and compares a 32x32 gray thumbnail
+ * of it with the one of the last frame searched: frames whose mean absolute difference is within the threshold are
+ * skipped, the others are prepared and sent on the non-blocking client.
+ * <p>
+ * The futures of skipped and replaced frames are cancelled, so their callbacks are told with
+ * {@link FutureCallback#cancelled()}.
+ *
+ * @author Stefano Zanini
+ */
+public class FrameRecognizer implements Closeable {
+
+	private static final AtomicInteger RECOGNIZER_COUNT = new AtomicInteger();
+	private static final int THUMBNAIL_SIZE = 32;
+
+	private final String token;
+	private final SearchParameters optionals;
+	private final double maxDifference;
+	private final Semaphore inFlight;
+	private final Thread worker;
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong duplicates = new AtomicLong();
+	private final AtomicLong stale = new AtomicLong();
+	private final AtomicLong searched = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	//The worker holds a slot while waiting for a frame, so the requests in flight are counted apart
+	private final AtomicInteger requests = new AtomicInteger();
+	//Guarded by this
+	private Frame waiting;
+	private boolean closed;
+	//Thumbnail of the last frame searched, cleared when its search fails so that the same scene is tried again, unless a
+	//later frame has been searched meanwhile
+	private final AtomicReference<int[]> lastThumbnail = new AtomicReference<>();
+
+	/**
+	 * Creates a recognizer with up to 2 requests in flight, which skips frames differing from the last one searched by
+	 * less than 4 gray levels on average
+	 *
+	 * @param token Catchoom collection token
+	 * @param optionals optional parameters for Catchoom search, shared by all the frames
+	 */
+	public FrameRecognizer(String token, SearchParameters optionals) {
+		this(token, optionals, 2, 4);
+	}
+
+	/**
+	 * @param token Catchoom collection token
+	 * @param optionals optional parameters for Catchoom search, shared by all the frames
+	 * @param maxInFlight the maximum number of search requests waiting for the server's answer
+	 * @param maxDifference the mean absolute difference of the gray levels, from 0 to 255, up to which a frame is
+	 * considered a duplicate of the last one searched; 0 only skips identical frames, a negative value none
+	 */
+	public FrameRecognizer(String token, SearchParameters optionals, int maxInFlight, double maxDifference) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("Requests in flight must be positive");
+		}
+		this.token = token;
+		this.optionals = optionals;
+		this.maxDifference = maxDifference;
+		this.inFlight = new Semaphore(maxInFlight);
+		this.worker = new Thread(new Worker(), "jcraftar-frames-" + RECOGNIZER_COUNT.incrementAndGet());
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Offers a frame for search, replacing the frame still waiting, if any
+	 *
+	 * @param frame the frame to search, which must not be modified afterwards
+	 * @return a future which completes with the JSON object containing the results of the search, or is cancelled if
+	 * the frame is skipped
+	 */
+	public Future<JSONObject> submit(BufferedImage frame) {
+		return submit(frame, null);
+	}
+
+	/**
+	 * Offers a frame for search, replacing the frame still waiting, if any
+	 *
+	 * @param frame the frame to search, which must not be modified afterwards
+	 * @param callback notified when the search completes, fails or is cancelled; may be null
+	 * @return a future which completes with the JSON object containing the results of the search, or is cancelled if
+	 * the frame is skipped
+	 */
+	public Future<JSONObject> submit(BufferedImage frame, FutureCallback<JSONObject> callback) {
+		return offer(new Frame(frame, null, callback));
+	}
+
+	/**
+	 * Offers a frame for search, replacing the frame still waiting, if any
+	 *
+	 * @param frame the encoded frame to search, which must not be modified afterwards
+	 * @return a future which completes with the JSON object containing the results of the search, or is cancelled if
+	 * the frame is skipped
+	 */
+	public Future<JSONObject> submit(byte[] frame) {
+		return submit(frame, null);
+	}
+
+	/**
+	 * Offers a frame for search, replacing the frame still waiting, if any
+	 *
+	 * @param frame the encoded frame to search, which must not be modified afterwards
+	 * @param callback notified when the search completes, fails or is cancelled; may be null
+	 * @return a future which completes with the JSON object containing the results of the search, or is cancelled if
+	 * the frame is skipped
+	 */
+	public Future<JSONObject> submit(byte[] frame, FutureCallback<JSONObject> callback) {
+		return offer(new Frame(null, frame, callback));
+	}
+
+	private Future<JSONObject> offer(Frame frame) {
+		Frame replaced;
+		synchronized (this) {
+			if (closed) {
+				throw new RejectedExecutionException("The recognizer has been closed");
+			}
+			replaced = waiting;
+			waiting = frame;
+			notifyAll();
+		}
+		submitted.incrementAndGet();
+		if (replaced != null) {
+			stale.incrementAndGet();
+			replaced.future.cancel(false);
+		}
+		return frame.future;
+	}
+
+	/**
+	 * Returns how many frames have been skipped, searched and answered so far
+	 *
+	 * @return a snapshot of the recognizer counters
+	 */
+	public FrameStats getStats() {
+		return new FrameStats(submitted.get(), duplicates.get(), stale.get(), searched.get(), completed.get(),
+				failed.get(), requests.get());
+	}
+
+	/**
+	 * Stops accepting frames and drops the one waiting, if any. The requests in flight still complete.
+	 */
+	@Override
+	public void close() {
+		Frame dropped;
+		synchronized (this) {
+			closed = true;
+			dropped = waiting;
+			waiting = null;
+			notifyAll();
+		}
+		if (dropped != null) {
+			stale.incrementAndGet();
+			dropped.future.cancel(false);
+		}
+	}
+
+	private static class Frame {
+
+		final BufferedImage image;
+		final byte[] encoded;
+		final JSONFuture future;
+
+		Frame(BufferedImage image, byte[] encoded, FutureCallback<JSONObject> callback) {
+			this.image = image;
+			this.encoded = encoded;
+			this.future = new JSONFuture(callback);
+		}
+
+		int[] thumbnail() throws IOException {
+			return image != null
+					? PerceptualHash.thumbnail(image, THUMBNAIL_SIZE, THUMBNAIL_SIZE)
+					: PerceptualHash.thumbnail(encoded, THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+		}
+
+		byte[] prepare(SearchParameters optionals) throws IOException {
+			return image != null ? ImagePreprocessor.prepare(image, optionals) : ImagePreprocessor.prepare(encoded, optionals);
+		}
+	}
+
+	//Returns the waiting frame, or null once closed
+	private synchronized Frame take() throws InterruptedException {
+		while (waiting == null && !closed) {
+			wait();
+		}
+		Frame frame = waiting;
+		waiting = null;
+		return frame;
+	}
+
+	private static double difference(int[] thumbnail1, int[] thumbnail2) {
+		long sum = 0;
+		for (int i = 0; i < thumbnail1.length; i++) {
+			sum += Math.abs(thumbnail1[i] - thumbnail2[i]);
+		}
+		return (double) sum / thumbnail1.length;
+	}
+
+	private class Worker implements Runnable {
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					//Waiting for a free slot before taking the frame lets newer frames replace it meanwhile
+					inFlight.acquire();
+					Frame frame = take();
+					if (frame == null) {
+						inFlight.release();
+						return;
+					}
+					if (!search(frame)) {
+						inFlight.release();
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		//Returns whether a request has been started, which releases its slot once over
+		private boolean search(Frame frame) {
+			if (frame.future.isCancelled()) {
+				return false;
+			}
+			byte[] image;
+			final int[] thumbnail;
+			try {
+				thumbnail = frame.thumbnail();
+				int[] last = lastThumbnail.get();
+				if (last != null && difference(thumbnail, last) <= maxDifference) {
+					duplicates.incrementAndGet();
+					frame.future.cancel(false);
+					return false;
+				}
+				image = frame.prepare(optionals);
+				lastThumbnail.set(thumbnail);
+			} catch (IOException | RuntimeException e) {
+				failed.incrementAndGet();
+				frame.future.failed(e);
+				return false;
+			}
+			final FutureCallback<HttpResponse> delegate = frame.future.getResponseCallback();
+			try {
+				searched.incrementAndGet();
+				requests.incrementAndGet();
+				frame.future.setRequest(Recognition.searchPreparedAsync(token, image, optionals,
+						new FutureCallback<HttpResponse>() {
+					@Override
+					public void completed(HttpResponse response) {
+						done();
+						FrameRecognizer.this.completed.incrementAndGet();
+						delegate.completed(response);
+					}
+
+					@Override
+					public void failed(Exception ex) {
+						done();
+						lastThumbnail.compareAndSet(thumbnail, null);
+						FrameRecognizer.this.failed.incrementAndGet();
+						delegate.failed(ex);
+					}
+
+					@Override
+					public void cancelled() {
+						done();
+						delegate.cancelled();
+					}
+
+					private void done() {
+						requests.decrementAndGet();
+						inFlight.release();
+					}
+				}));
+				return true;
+			} catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+				requests.decrementAndGet();
+				lastThumbnail.compareAndSet(thumbnail, null);
+				failed.incrementAndGet();
+				frame.future.failed(e);
+				return false;
+			}
+		}
+	}
+}
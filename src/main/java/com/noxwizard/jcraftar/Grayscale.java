@@ -0,0 +1,156 @@
+package com.noxwizard.jcraftar;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Converts images to single channel grayscale, reading the pixels straight from the raster data buffer row by row.
+ * Each gray level is the plain average of the red, green and blue components. Large images are split into bands of
+ * rows processed in parallel.
+ *
+ * @author Stefano Zanini
+ */
+class Grayscale {
+
+	//Images with fewer pixels than this are converted on the calling thread
+	private static final int TILE_PIXELS = 1 << 18;
+	private static final ForkJoinPool POOL = new ForkJoinPool();
+
+	private Grayscale() {
+	}
+
+	/**
+	 * Returns a grayscale version of the image, leaving the input untouched
+	 *
+	 * @param input the image to convert
+	 * @return a TYPE_BYTE_GRAY image, which is the input itself if it was already one
+	 */
+	static BufferedImage convert(BufferedImage input) {
+		if (input.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+			return input;
+		}
+		int width = input.getWidth();
+		int height = input.getHeight();
+		BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+		byte[] gray = ((DataBufferByte) output.getRaster().getDataBuffer()).getData();
+		Band band = new Band(input, gray, 0, height);
+		if ((long) width * height <= TILE_PIXELS) {
+			band.compute();
+		} else {
+			POOL.invoke(band);
+		}
+		return output;
+	}
+
+	private static class Band extends RecursiveAction {
+
+		private final BufferedImage input;
+		private final byte[] gray;
+		private final int fromRow;
+		private final int toRow;
+
+		Band(BufferedImage input, byte[] gray, int fromRow, int toRow) {
+			this.input = input;
+			this.gray = gray;
+			this.fromRow = fromRow;
+			this.toRow = toRow;
+		}
+
+		@Override
+		protected void compute() {
+			int width = input.getWidth();
+			if ((long) width * (toRow - fromRow) > TILE_PIXELS && toRow - fromRow > 1) {
+				int middle = (fromRow + toRow) >>> 1;
+				invokeAll(new Band(input, gray, fromRow, middle), new Band(input, gray, middle, toRow));
+				return;
+			}
+			Raster raster = input.getRaster();
+			switch (input.getType()) {
+				case BufferedImage.TYPE_INT_RGB:
+				case BufferedImage.TYPE_INT_ARGB:
+				case BufferedImage.TYPE_INT_ARGB_PRE:
+					convertPacked(raster, 16, 0);
+					break;
+				case BufferedImage.TYPE_INT_BGR:
+					convertPacked(raster, 0, 16);
+					break;
+				case BufferedImage.TYPE_3BYTE_BGR:
+				case BufferedImage.TYPE_4BYTE_ABGR:
+				case BufferedImage.TYPE_4BYTE_ABGR_PRE:
+					convertInterleaved(raster);
+					break;
+				default:
+					convertAny();
+			}
+		}
+
+		//Pixels packed in one int each, red and blue at the given bit offsets
+		private void convertPacked(Raster raster, int redShift, int blueShift) {
+			int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+			SinglePixelPackedSampleModel sm = (SinglePixelPackedSampleModel) raster.getSampleModel();
+			int stride = sm.getScanlineStride();
+			int base = raster.getDataBuffer().getOffset()
+					- raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+			int width = input.getWidth();
+			for (int y = fromRow; y < toRow; y++) {
+				int src = base + y * stride;
+				int dst = y * width;
+				for (int x = 0; x < width; x++) {
+					int p = data[src + x];
+					int r = (p >> redShift) & 0xff;
+					int g = (p >> 8) & 0xff;
+					int b = (p >> blueShift) & 0xff;
+					gray[dst + x] = (byte) ((r + g + b) / 3);
+				}
+			}
+		}
+
+		//Pixels stored as consecutive bytes, one per band
+		private void convertInterleaved(Raster raster) {
+			byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+			ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+			int stride = sm.getScanlineStride();
+			int pixelStride = sm.getPixelStride();
+			int[] bandOffsets = sm.getBandOffsets();
+			int base = raster.getDataBuffer().getOffset()
+					- raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX() * pixelStride;
+			int rOffset = bandOffsets[0];
+			int gOffset = bandOffsets[1];
+			int bOffset = bandOffsets[2];
+			int width = input.getWidth();
+			for (int y = fromRow; y < toRow; y++) {
+				int src = base + y * stride;
+				int dst = y * width;
+				for (int x = 0; x < width; x++, src += pixelStride) {
+					int r = data[src + rOffset] & 0xff;
+					int g = data[src + gOffset] & 0xff;
+					int b = data[src + bOffset] & 0xff;
+					gray[dst + x] = (byte) ((r + g + b) / 3);
+				}
+			}
+		}
+
+		//Any other layout goes through the color model, still one row at a time
+		private void convertAny() {
+			int width = input.getWidth();
+			int[] row = new int[width];
+			for (int y = fromRow; y < toRow; y++) {
+				input.getRGB(0, y, width, 1, row, 0, width);
+				int dst = y * width;
+				for (int x = 0; x < width; x++) {
+					int p = row[x];
+					int r = (p >> 16) & 0xff;
+					int g = (p >> 8) & 0xff;
+					int b = p & 0xff;
+					gray[dst + x] = (byte) ((r + g + b) / 3);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.HedgingStats;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.json.JSONObject;
+
+/**
+ * Sends a duplicate of a request which has not been answered within a percentile of the recent latencies, and keeps the
+ * first answer, cancelling the other request. The duplicates are capped to a percentage of the requests, so that a slow
+ * server doesn't get twice the traffic. No duplicate is sent until enough latencies have been measured. The latencies
+ * are those of the first requests only, and a first request cancelled because its duplicate won counts with the time
+ * it had been waiting, so that the slow requests which triggered a duplicate still weigh on the percentile.
+ *
+ * @author Stefano Zanini
+ */
+class Hedging {
+
+	//Latencies are kept for this many recent requests
+	private static final int WINDOW = 512;
+	private static final int MIN_SAMPLES = 20;
+	//The delay is computed again after this many new latencies, rather than sorting the window for every request
+	private static final int REFRESH_INTERVAL = 16;
+
+	/**
+	 * Starts one of the identical requests
+	 */
+	interface Request {
+
+		Future<JSONObject> start(FutureCallback<JSONObject> callback) throws IOException;
+	}
+
+	private final double percentile;
+	private final double budgetPercent;
+	private final long[] latencies = new long[WINDOW];
+	private int samples;
+	private int sinceRefresh;
+	private volatile long delayNanos = -1;
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong hedged = new AtomicLong();
+	private final AtomicLong hedgeWins = new AtomicLong();
+
+	Hedging(double percentile, double budgetPercent) {
+		this.percentile = percentile;
+		this.budgetPercent = budgetPercent;
+	}
+
+	JSONObject execute(Request request) throws IOException {
+		requests.incrementAndGet();
+		long delay = delayNanos;
+		Outcome outcome = new Outcome();
+		Attempt primaryAttempt = new Attempt(outcome, false);
+		Future<JSONObject> primary = request.start(primaryAttempt);
+		Future<JSONObject> hedge = null;
+		try {
+			if (delay >= 0) {
+				try {
+					return outcome.get(delay, TimeUnit.NANOSECONDS);
+				} catch (TimeoutException e) {
+					if (acquireBudget()) {
+						outcome.addAttempt();
+						try {
+							hedge = request.start(new Attempt(outcome, true));
+						} catch (IOException | RuntimeException ex) {
+							//Keeps waiting for the first request
+							hedged.decrementAndGet();
+							outcome.attemptFailed(ex);
+						}
+					}
+				}
+			}
+			return outcome.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the search", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		} finally {
+			//Aborts the request which lost, or both if the caller gave up
+			primaryAttempt.recordLatency();
+			primary.cancel(true);
+			if (hedge != null) {
+				hedge.cancel(true);
+			}
+		}
+	}
+
+	HedgingStats getStats() {
+		long delay = delayNanos;
+		return new HedgingStats(requests.get(), hedged.get(), hedgeWins.get(), delay >= 0 ? delay / 1e6 : -1);
+	}
+
+	private boolean acquireBudget() {
+		while (true) {
+			long current = hedged.get();
+			if ((current + 1) * 100 > budgetPercent * requests.get()) {
+				return false;
+			}
+			if (hedged.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	private synchronized void record(long latency) {
+		latencies[samples % WINDOW] = latency;
+		samples++;
+		if (samples >= MIN_SAMPLES && ++sinceRefresh >= REFRESH_INTERVAL) {
+			sinceRefresh = 0;
+			long[] sorted = Arrays.copyOf(latencies, Math.min(samples, WINDOW));
+			Arrays.sort(sorted);
+			int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+			delayNanos = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+		}
+	}
+
+	//Completes with the first answer, and fails only once every request sent has failed
+	private static class Outcome extends BasicFuture<JSONObject> {
+
+		private int attempts = 1;
+		private int failures;
+
+		Outcome() {
+			super(null);
+		}
+
+		synchronized void addAttempt() {
+			attempts++;
+		}
+
+		synchronized void attemptFailed(Exception ex) {
+			if (++failures >= attempts) {
+				failed(ex);
+			}
+		}
+	}
+
+	private class Attempt implements FutureCallback<JSONObject> {
+
+		private final Outcome outcome;
+		private final boolean hedge;
+		private final long start = System.nanoTime();
+		private final AtomicBoolean recorded = new AtomicBoolean();
+
+		Attempt(Outcome outcome, boolean hedge) {
+			this.outcome = outcome;
+			this.hedge = hedge;
+		}
+
+		@Override
+		public void completed(JSONObject result) {
+			recordLatency();
+			if (outcome.completed(result) && hedge) {
+				hedgeWins.incrementAndGet();
+			}
+		}
+
+		@Override
+		public void failed(Exception ex) {
+			recordLatency();
+			outcome.attemptFailed(ex);
+		}
+
+		@Override
+		public void cancelled() {
+			//Only the losing requests are cancelled, once the outcome is known
+		}
+
+		//Records the time of a first request once, when it is over or when it is given up
+		void recordLatency() {
+			if (!hedge && recorded.compareAndSet(false, true)) {
+				record(System.nanoTime() - start);
+			}
+		}
+	}
+}
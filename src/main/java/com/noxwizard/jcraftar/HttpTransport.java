@@ -0,0 +1,729 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.CircuitState;
+import com.noxwizard.jcraftar.datapassing.EndpointClass;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLException;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Owns the HTTP clients shared by all the Management and Recognition calls. Connections are pooled and kept alive, so
+ * consecutive requests to the same host skip both the TCP connect and the TLS handshake. A blocking client serves the
+ * synchronous calls and a non-blocking (NIO) one serves the asynchronous calls. The clients are created lazily
+ * from the limits in {@link Settings}; call {@link #shutdown()} to release the connections, or to apply new limits.
+ *
+ * @author Stefano Zanini
+ */
+public class HttpTransport {
+
+	private static PoolingHttpClientConnectionManager CONNECTION_MANAGER = null;
+	private static CloseableHttpClient CLIENT = null;
+	private static PoolingNHttpClientConnectionManager ASYNC_CONNECTION_MANAGER = null;
+	private static CloseableHttpAsyncClient ASYNC_CLIENT = null;
+	private static volatile RetryPolicy RETRY_POLICY = null;
+	//Starts the retries of the non-blocking requests once their delay is over
+	private static final ScheduledExecutorService RETRY_SCHEDULER = new ScheduledThreadPoolExecutor(1,
+			new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "jcraftar-retry");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+	private static volatile RateLimiter RATE_LIMITER = null;
+	//Circuit breakers by endpoint, null when disabled
+	private static volatile ConcurrentMap<String, CircuitBreaker> BREAKERS = null;
+	private static volatile int BREAKER_FAILURE_THRESHOLD;
+	private static volatile long BREAKER_OPEN_MILLIS;
+
+	//Forces the usage of TLS version 1.2, because Java 7 defaults to version 1 but the server won't accept that
+	private static SSLConnectionSocketFactory getSSLContext() throws NoSuchAlgorithmException {
+		return new SSLConnectionSocketFactory(
+				SSLContext.getDefault(),
+				new String[]{"TLSv1.2"},
+				null,
+				SSLConnectionSocketFactory.getDefaultHostnameVerifier());
+	}
+
+	//Uses the keep-alive timeout sent by the server, falling back to the configured one
+	private static final ConnectionKeepAliveStrategy KEEP_ALIVE_STRATEGY = new ConnectionKeepAliveStrategy() {
+		@Override
+		public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+			HeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+			while (it.hasNext()) {
+				HeaderElement element = it.nextElement();
+				if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+					try {
+						return Long.parseLong(element.getValue()) * 1000;
+					} catch (NumberFormatException e) {
+						break;
+					}
+				}
+			}
+			return Settings.KEEP_ALIVE_MILLIS;
+		}
+	};
+
+	static synchronized CloseableHttpClient getClient() throws NoSuchAlgorithmException {
+		if (CLIENT == null) {
+			Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+					.register("http", PlainConnectionSocketFactory.getSocketFactory())
+					.register("https", getSSLContext())
+					.build();
+			CONNECTION_MANAGER = new PoolingHttpClientConnectionManager(registry);
+			CONNECTION_MANAGER.setMaxTotal(Settings.MAX_CONNECTIONS_TOTAL);
+			CONNECTION_MANAGER.setDefaultMaxPerRoute(Settings.MAX_CONNECTIONS_PER_ROUTE);
+			CONNECTION_MANAGER.setValidateAfterInactivity(2000);
+			CLIENT = HttpClients.custom()
+					.setConnectionManager(CONNECTION_MANAGER)
+					.setKeepAliveStrategy(KEEP_ALIVE_STRATEGY)
+					.evictExpiredConnections()
+					.evictIdleConnections(Settings.KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS)
+					//Retries are left to the retry policy, which waits between attempts
+					.disableAutomaticRetries()
+					.setUserAgent(Settings.USER_AGENT)
+					.build();
+		}
+		return CLIENT;
+	}
+
+	static synchronized CloseableHttpAsyncClient getAsyncClient() throws IOException, NoSuchAlgorithmException {
+		if (ASYNC_CLIENT == null) {
+			Registry<SchemeIOSessionStrategy> registry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+					.register("http", NoopIOSessionStrategy.INSTANCE)
+					.register("https", new SSLIOSessionStrategy(
+							SSLContext.getDefault(),
+							new String[]{"TLSv1.2"},
+							null,
+							SSLConnectionSocketFactory.getDefaultHostnameVerifier()))
+					.build();
+			ASYNC_CONNECTION_MANAGER = new PoolingNHttpClientConnectionManager(
+					new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT), registry);
+			ASYNC_CONNECTION_MANAGER.setMaxTotal(Settings.MAX_CONNECTIONS_TOTAL);
+			ASYNC_CONNECTION_MANAGER.setDefaultMaxPerRoute(Settings.MAX_CONNECTIONS_PER_ROUTE);
+			ASYNC_CLIENT = HttpAsyncClients.custom()
+					.setConnectionManager(ASYNC_CONNECTION_MANAGER)
+					.setKeepAliveStrategy(KEEP_ALIVE_STRATEGY)
+					.setUserAgent(Settings.USER_AGENT)
+					.build();
+			ASYNC_CLIENT.start();
+		}
+		return ASYNC_CLIENT;
+	}
+
+	//Routes the request through the proxy, if any, and attaches its credentials to the execution context
+	private static HttpClientContext createContext(HttpRequestBase request, Proxy proxy) {
+		HttpClientContext context = HttpClientContext.create();
+		if (proxy != null) {
+			request.setConfig(RequestConfig.custom().setProxy(proxy.getHttpProxy()).build());
+			if (proxy.isAuthenticated()) {
+				context.setCredentialsProvider(proxy.getCredentialsProvider());
+			}
+		}
+		return context;
+	}
+
+	/**
+	 * Executes a Management request on the shared client, routing it through the given proxy if not null. The caller
+	 * must close the response (after consuming its entity) so that the connection goes back to the pool. GET, HEAD and
+	 * DELETE requests are retried according to the retry policy, if any, and requests are counted against the quota of
+	 * the API key in their query.
+	 */
+	static CloseableHttpResponse execute(HttpRequestBase request, Proxy proxy) throws IOException, NoSuchAlgorithmException {
+		String method = request.getMethod();
+		return execute(request, proxy, "GET".equals(method) || "HEAD".equals(method) || "DELETE".equals(method),
+				getApiKey(request.getURI()), EndpointClass.MANAGEMENT, null);
+	}
+
+	/**
+	 * Executes a request on the shared client like {@link #execute(HttpRequestBase, Proxy)}, retrying it after a
+	 * transient failure only if it is idempotent. Requests to an endpoint whose circuit breaker is open fail right away,
+	 * before taking any permit. Every attempt waits for a permit of the rate limiter, if any, for the given key, and then
+	 * for the concurrency limiter, if not null, which only times the request itself.
+	 */
+	static CloseableHttpResponse execute(HttpRequestBase request, Proxy proxy, boolean idempotent, String quotaKey,
+			EndpointClass endpointClass, ConcurrencyLimiter limiter) throws IOException, NoSuchAlgorithmException {
+		CloseableHttpClient client = getClient();
+		RetryPolicy policy = idempotent && isRepeatable(request) ? RETRY_POLICY : null;
+		CircuitBreaker breaker = getCircuitBreaker(request);
+		for (int retry = 0;; retry++) {
+			if (breaker != null) {
+				breaker.acquire();
+			}
+			ConcurrencyLimiter.Permit permit;
+			try {
+				acquirePermit(quotaKey, endpointClass);
+				permit = limiter != null ? limiter.acquire() : null;
+			} catch (InterruptedIOException | RuntimeException e) {
+				//Nothing has been sent, so the trial of a half open circuit is still to be made
+				if (breaker != null) {
+					breaker.abandoned();
+				}
+				throw e;
+			}
+			CloseableHttpResponse response;
+			try {
+				response = client.execute(request, createContext(request, proxy));
+			} catch (IOException | RuntimeException e) {
+				if (permit != null) {
+					permit.release(e);
+				}
+				if (breaker != null) {
+					breaker.failed();
+				}
+				long delay = policy != null && isTransient(e) ? policy.getDelayMillis(retry, -1) : -1;
+				if (delay < 0) {
+					throw e;
+				}
+				pause(delay);
+				continue;
+			}
+			if (permit != null) {
+				permit.release(response);
+			}
+			int status = response.getStatusLine().getStatusCode();
+			boolean retryable = status == 429 || status == 502 || status == 503 || status == 504;
+			if (breaker != null) {
+				if (retryable || status >= 500) {
+					breaker.failed();
+				} else {
+					breaker.succeeded();
+				}
+			}
+			long delay = policy != null && retryable ? policy.getDelayMillis(retry, getRetryAfterMillis(response)) : -1;
+			if (delay < 0) {
+				return response;
+			}
+			//Releases the connection before waiting
+			EntityUtils.consumeQuietly(response.getEntity());
+			response.close();
+			pause(delay);
+		}
+	}
+
+	//Sends a request again only if its body, if any, can be written more than once
+	private static boolean isRepeatable(HttpRequestBase request) {
+		if (request instanceof HttpEntityEnclosingRequest) {
+			HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+			return entity == null || entity.isRepeatable();
+		}
+		return true;
+	}
+
+	//Timeouts and dropped connections may not happen again, while unknown hosts, TLS errors and interruptions will
+	static boolean isTransient(Exception e) {
+		if (e instanceof CircuitOpenException || e instanceof UnknownHostException || e instanceof SSLException) {
+			return false;
+		}
+		if (e instanceof InterruptedIOException) {
+			return e instanceof SocketTimeoutException || e instanceof ConnectTimeoutException;
+		}
+		return e instanceof IOException;
+	}
+
+	//The header holds either a number of seconds or an HTTP date
+	private static long getRetryAfterMillis(HttpResponse response) {
+		Header header = response.getFirstHeader("Retry-After");
+		if (header == null || header.getValue() == null) {
+			return -1;
+		}
+		String value = header.getValue().trim();
+		try {
+			return Math.max(0, Long.parseLong(value) * 1000);
+		} catch (NumberFormatException e) {
+			Date date = DateUtils.parseDate(value);
+			return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : -1;
+		}
+	}
+
+	private static void pause(long millis) throws InterruptedIOException {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			InterruptedIOException ex = new InterruptedIOException("Interrupted while waiting to retry");
+			ex.initCause(e);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Sets how idempotent requests are retried after a transient failure
+	 *
+	 * @param policy the retry policy, or null not to retry
+	 */
+	public static void setRetryPolicy(RetryPolicy policy) {
+		RETRY_POLICY = policy;
+	}
+
+	public static RetryPolicy getRetryPolicy() {
+		return RETRY_POLICY;
+	}
+
+	/**
+	 * Makes the requests to an endpoint fail right away, with a {@link CircuitOpenException},
+	 * after failureThreshold consecutive failures (connection errors, timeouts, 429 and 5xx responses), for openMillis;
+	 * after that a single trial request decides whether to close the circuit or keep it open. Endpoints are told apart
+	 * by host and path, leaving out object uuids. Replaces the current circuit breakers, if any.
+	 *
+	 * @param failureThreshold the number of consecutive failures which opens the circuit
+	 * @param openMillis how long the circuit stays open, in milliseconds
+	 */
+	public static void enableCircuitBreakers(int failureThreshold, long openMillis) {
+		if (failureThreshold < 1 || openMillis < 1) {
+			throw new IllegalArgumentException("Failure threshold and open time must be positive");
+		}
+		BREAKER_FAILURE_THRESHOLD = failureThreshold;
+		BREAKER_OPEN_MILLIS = openMillis;
+		BREAKERS = new ConcurrentHashMap<>();
+	}
+
+	public static void disableCircuitBreakers() {
+		BREAKERS = null;
+	}
+
+	/**
+	 * Returns the state of the circuit breaker of each endpoint contacted since they were enabled
+	 *
+	 * @return the states by endpoint, empty if the circuit breakers are disabled
+	 */
+	public static Map<String, CircuitState> getCircuitStates() {
+		Map<String, CircuitState> states = new TreeMap<>();
+		ConcurrentMap<String, CircuitBreaker> breakers = BREAKERS;
+		if (breakers != null) {
+			for (Map.Entry<String, CircuitBreaker> entry : breakers.entrySet()) {
+				states.put(entry.getKey(), entry.getValue().getState());
+			}
+		}
+		return states;
+	}
+
+	private static CircuitBreaker getCircuitBreaker(HttpRequestBase request) {
+		ConcurrentMap<String, CircuitBreaker> breakers = BREAKERS;
+		if (breakers == null) {
+			return null;
+		}
+		String endpoint = getEndpoint(request.getURI());
+		CircuitBreaker breaker = breakers.get(endpoint);
+		if (breaker == null) {
+			CircuitBreaker created = new CircuitBreaker(endpoint, BREAKER_FAILURE_THRESHOLD, BREAKER_OPEN_MILLIS);
+			breaker = breakers.putIfAbsent(endpoint, created);
+			if (breaker == null) {
+				breaker = created;
+			}
+		}
+		return breaker;
+	}
+
+	//Keeps the host and the path up to the first uuid, so that all the objects of a type share the same endpoint
+	private static String getEndpoint(URI uri) {
+		StringBuilder endpoint = new StringBuilder(String.valueOf(uri.getHost()));
+		if (uri.getPort() != -1) {
+			endpoint.append(':').append(uri.getPort());
+		}
+		String path = uri.getPath() != null ? uri.getPath() : "";
+		for (String segment : path.split("/")) {
+			if (segment.length() >= 16) {
+				break;
+			}
+			if (!segment.isEmpty()) {
+				endpoint.append('/').append(segment);
+			}
+		}
+		return endpoint.toString();
+	}
+
+	/**
+	 * Executes a request on the shared non-blocking client, routing it through the given proxy if not null. The
+	 * response is fully buffered before the callback is notified, so no thread is held while waiting for the server.
+	 * Like {@link #execute(HttpRequestBase, Proxy, boolean, String, EndpointClass, ConcurrencyLimiter)}, every attempt
+	 * goes through the circuit breaker of its endpoint and then waits for a permit of the rate limiter, if any, and of
+	 * the concurrency limiter, if not null, and idempotent requests are retried after a transient failure; permits and
+	 * retries are waited for without holding any thread.
+	 */
+	static Future<HttpResponse> executeAsync(HttpRequestBase request, Proxy proxy, boolean idempotent, String quotaKey,
+			EndpointClass endpointClass, ConcurrencyLimiter limiter, FutureCallback<HttpResponse> callback) {
+		AsyncExecution execution = new AsyncExecution(request, proxy,
+				idempotent && isRepeatable(request) ? RETRY_POLICY : null, quotaKey, endpointClass, limiter, callback);
+		execution.attempt();
+		return execution;
+	}
+
+	private static Future<HttpResponse> executeAsync(HttpRequestBase request, Proxy proxy,
+			FutureCallback<HttpResponse> callback) throws IOException, NoSuchAlgorithmException {
+		//Multipart entities can only be written to a stream, while the NIO client reads the request body from one
+		if (request instanceof HttpEntityEnclosingRequest) {
+			HttpEntityEnclosingRequest enclosing = (HttpEntityEnclosingRequest) request;
+			HttpEntity entity = enclosing.getEntity();
+			if (entity != null && !(entity instanceof ByteArrayEntity)) {
+				ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+				entity.writeTo(buffer);
+				ByteArrayEntity buffered = new ByteArrayEntity(buffer.toByteArray());
+				buffered.setContentType(entity.getContentType());
+				enclosing.setEntity(buffered);
+			}
+		}
+		//Unlike the blocking client, the NIO one doesn't ask for compressed responses on its own
+		if (!request.containsHeader("Accept-Encoding")) {
+			request.addHeader("Accept-Encoding", "gzip,deflate");
+		}
+		return getAsyncClient().execute(request, createContext(request, proxy), callback);
+	}
+
+	//The attempts of a request on the non-blocking client: completes with the response of the last one
+	private static class AsyncExecution extends BasicFuture<HttpResponse> {
+
+		private final HttpRequestBase request;
+		private final Proxy proxy;
+		private final RetryPolicy policy;
+		private final String quotaKey;
+		private final EndpointClass endpointClass;
+		private final ConcurrencyLimiter limiter;
+		private final CircuitBreaker breaker;
+		//Attempts run one after the other, each started by the end of the previous one
+		private volatile int retry;
+		//Whether the attempt has gone through the circuit breaker and is waiting for its permits
+		private final AtomicBoolean trial = new AtomicBoolean();
+		//The permit being waited for, the retry being waited for or the request in flight
+		private volatile Future<?> pending;
+
+		AsyncExecution(HttpRequestBase request, Proxy proxy, RetryPolicy policy, String quotaKey,
+				EndpointClass endpointClass, ConcurrencyLimiter limiter, FutureCallback<HttpResponse> callback) {
+			super(callback);
+			this.request = request;
+			this.proxy = proxy;
+			this.policy = policy;
+			this.quotaKey = quotaKey;
+			this.endpointClass = endpointClass;
+			this.limiter = limiter;
+			this.breaker = getCircuitBreaker(request);
+		}
+
+		//Goes through the circuit breaker before waiting for any permit, so that an open circuit fails right away
+		void attempt() {
+			if (breaker != null) {
+				try {
+					breaker.acquire();
+				} catch (CircuitOpenException e) {
+					failed(e);
+					return;
+				}
+				trial.set(true);
+			}
+			RateLimiter rateLimiter = RATE_LIMITER;
+			if (rateLimiter == null || quotaKey == null) {
+				admit();
+				return;
+			}
+			setPending(rateLimiter.acquireAsync(quotaKey, endpointClass, new FutureCallback<Void>() {
+				@Override
+				public void completed(Void permit) {
+					admit();
+				}
+
+				@Override
+				public void failed(Exception ex) {
+					abandonTrial();
+					AsyncExecution.this.failed(ex);
+				}
+
+				@Override
+				public void cancelled() {
+					abandonTrial();
+					AsyncExecution.this.cancel();
+				}
+			}));
+		}
+
+		//Waits for the concurrency limiter, if any, once the rate permit is due
+		private void admit() {
+			if (isDone()) {
+				return;
+			}
+			if (limiter == null) {
+				send(null);
+				return;
+			}
+			setPending(limiter.acquireAsync(new FutureCallback<ConcurrencyLimiter.Permit>() {
+				@Override
+				public void completed(ConcurrencyLimiter.Permit permit) {
+					send(permit);
+				}
+
+				@Override
+				public void failed(Exception ex) {
+					abandonTrial();
+					AsyncExecution.this.failed(ex);
+				}
+
+				@Override
+				public void cancelled() {
+					abandonTrial();
+					AsyncExecution.this.cancel();
+				}
+			}));
+		}
+
+		private void send(final ConcurrencyLimiter.Permit permit) {
+			if (isDone()) {
+				if (permit != null) {
+					permit.abandon();
+				}
+				abandonTrial();
+				return;
+			}
+			//From now on the outcome of the request is reported to the breaker
+			trial.set(false);
+			try {
+				setPending(executeAsync(request, proxy, new FutureCallback<HttpResponse>() {
+					@Override
+					public void completed(HttpResponse response) {
+						if (permit != null) {
+							permit.release(response);
+						}
+						onResponse(response);
+					}
+
+					@Override
+					public void failed(Exception ex) {
+						if (permit != null) {
+							permit.release(ex);
+						}
+						onFailure(ex);
+					}
+
+					@Override
+					public void cancelled() {
+						if (permit != null) {
+							permit.abandon();
+						}
+						if (breaker != null) {
+							breaker.abandoned();
+						}
+						AsyncExecution.this.cancel();
+					}
+				}));
+			} catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+				//The request couldn't be sent, which says nothing about the endpoint
+				if (permit != null) {
+					permit.abandon();
+				}
+				if (breaker != null) {
+					breaker.abandoned();
+				}
+				failed(e);
+			}
+		}
+
+		private void onResponse(HttpResponse response) {
+			int status = response.getStatusLine().getStatusCode();
+			boolean retryable = status == 429 || status == 502 || status == 503 || status == 504;
+			if (breaker != null) {
+				if (retryable || status >= 500) {
+					breaker.failed();
+				} else {
+					breaker.succeeded();
+				}
+			}
+			long delay = policy != null && retryable ? policy.getDelayMillis(retry, getRetryAfterMillis(response)) : -1;
+			if (delay < 0) {
+				completed(response);
+			} else {
+				//The response has been buffered, so its connection is already back in the pool
+				retryLater(delay);
+			}
+		}
+
+		private void onFailure(Exception ex) {
+			if (breaker != null) {
+				breaker.failed();
+			}
+			long delay = policy != null && isTransient(ex) ? policy.getDelayMillis(retry, -1) : -1;
+			if (delay < 0) {
+				failed(ex);
+			} else {
+				retryLater(delay);
+			}
+		}
+
+		private void retryLater(long delay) {
+			retry++;
+			try {
+				setPending(RETRY_SCHEDULER.schedule(new Runnable() {
+					@Override
+					public void run() {
+						attempt();
+					}
+				}, delay, TimeUnit.MILLISECONDS));
+			} catch (RejectedExecutionException e) {
+				failed(e);
+			}
+		}
+
+		//Tells the breaker that the attempt let through won't be sent
+		private void abandonTrial() {
+			if (trial.compareAndSet(true, false)) {
+				breaker.abandoned();
+			}
+		}
+
+		//A permit granted right away has already started the next step, which the finished permit must not replace; the
+		//lock orders this check against the next step's own call, made once the permit has completed
+		private synchronized void setPending(Future<?> future) {
+			if (future.isDone()) {
+				return;
+			}
+			pending = future;
+			if (isCancelled()) {
+				future.cancel(true);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			Future<?> p = pending;
+			if (cancelled && p != null) {
+				p.cancel(true);
+			}
+			if (cancelled) {
+				abandonTrial();
+			}
+			return cancelled;
+		}
+	}
+
+	/**
+	 * Throttles the calls of this library with the given rate limiter, shared by all the threads
+	 *
+	 * @param limiter the rate limiter, or null not to throttle
+	 */
+	public static void setRateLimiter(RateLimiter limiter) {
+		RATE_LIMITER = limiter;
+	}
+
+	public static RateLimiter getRateLimiter() {
+		return RATE_LIMITER;
+	}
+
+	//Waits for a permit of the rate limiter, if any
+	private static void acquirePermit(String quotaKey, EndpointClass endpointClass) throws InterruptedIOException {
+		RateLimiter limiter = RATE_LIMITER;
+		if (limiter == null || quotaKey == null) {
+			return;
+		}
+		try {
+			limiter.acquire(quotaKey, endpointClass);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			InterruptedIOException ex = new InterruptedIOException("Interrupted while waiting for the rate limiter");
+			ex.initCause(e);
+			throw ex;
+		}
+	}
+
+	//Management requests carry the API key in the query
+	private static String getApiKey(URI uri) {
+		String query = uri.getRawQuery();
+		if (query == null) {
+			return null;
+		}
+		for (String parameter : query.split("&")) {
+			if (parameter.startsWith("api_key=")) {
+				return parameter.substring("api_key=".length());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the current state of the connection pool
+	 *
+	 * @return leased, pending, available and maximum connections, or null if the client has not been created yet
+	 */
+	public static synchronized PoolStats getPoolStats() {
+		return CONNECTION_MANAGER != null ? CONNECTION_MANAGER.getTotalStats() : null;
+	}
+
+	/**
+	 * Closes the shared clients, blocking and non-blocking, and all of their pooled connections. A new client, reading the current values of
+	 * {@link Settings#MAX_CONNECTIONS_TOTAL}, {@link Settings#MAX_CONNECTIONS_PER_ROUTE} and
+	 * {@link Settings#KEEP_ALIVE_MILLIS}, is created by the next request.
+	 *
+	 * @throws IOException if the client can't be closed
+	 */
+	public static synchronized void shutdown() throws IOException {
+		try {
+			if (CLIENT != null) {
+				CLIENT.close();
+			}
+		} finally {
+			CLIENT = null;
+			CONNECTION_MANAGER = null;
+			try {
+				if (ASYNC_CLIENT != null) {
+					ASYNC_CLIENT.close();
+				}
+			} finally {
+				ASYNC_CLIENT = null;
+				ASYNC_CONNECTION_MANAGER = null;
+			}
+		}
+	}
+}
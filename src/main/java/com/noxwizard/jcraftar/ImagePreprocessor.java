@@ -0,0 +1,171 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.ScalingQuality;
+import com.noxwizard.jcraftar.datapassing.SearchParameters;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * Turns a query image into the JPEG bytes sent to the search API, converting it to grayscale and resizing it as
+ * required by the search parameters. Everything happens in memory: neither the caller's file nor the caller's image are
+ * ever modified. Encoded images are decoded at the lowest resolution that still allows a good quality resize, or not
+ * decoded at all when they are already JPEGs of the required size and colors.
+ *
+ * @author Stefano Zanini
+ */
+class ImagePreprocessor {
+
+	private ImagePreprocessor() {
+	}
+
+	private static final AtomicLong PREPARED = new AtomicLong();
+	private static final AtomicLong PASSED_THROUGH = new AtomicLong();
+
+	static byte[] prepare(byte[] data, SearchParameters optionals) throws IOException {
+		return prepare(data, 0, data.length, optionals);
+	}
+
+	static byte[] prepare(ByteBuffer data, SearchParameters optionals) throws IOException {
+		ByteBuffer view = data.duplicate();
+		if (view.hasArray()) {
+			return prepare(view.array(), view.arrayOffset() + view.position(), view.remaining(), optionals);
+		}
+		byte[] copy = new byte[view.remaining()];
+		view.get(copy);
+		return prepare(copy, optionals);
+	}
+
+	static byte[] prepare(InputStream data, SearchParameters optionals) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		int read;
+		while ((read = data.read(chunk)) != -1) {
+			buffer.write(chunk, 0, read);
+		}
+		return prepare(buffer.toByteArray(), optionals);
+	}
+
+	private static byte[] prepare(byte[] data, int offset, int length, SearchParameters optionals) throws IOException {
+		PREPARED.incrementAndGet();
+		//A memory cache avoids ImageIO spilling the stream to a temporary file
+		try (ImageInputStream iis = new MemoryCacheImageInputStream(new ByteArrayInputStream(data, offset, length))) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+			if (!readers.hasNext()) {
+				throw new IOException("Unsupported image format");
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(iis, true, true);
+				//The dimensions come from the header, before any pixel is decoded
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				if (canPassThrough(reader, width, height, optionals)) {
+					PASSED_THROUGH.incrementAndGet();
+					return offset == 0 && length == data.length ? data : Arrays.copyOfRange(data, offset, offset + length);
+				}
+				ImageReadParam param = reader.getDefaultReadParam();
+				int subsampling = getSubsampling(width, height, optionals);
+				if (subsampling > 1) {
+					param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				}
+				BufferedImage input = reader.read(0, param);
+				return JpegEncoder.encode(transform(input, width, height, optionals), optionals);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	static byte[] prepare(BufferedImage input, SearchParameters optionals) throws IOException {
+		return JpegEncoder.encode(transform(input, input.getWidth(), input.getHeight(), optionals), optionals);
+	}
+
+	/**
+	 * Returns the number of encoded images (bytes, buffers, streams and files) prepared so far
+	 */
+	static long getPreparedCount() {
+		return PREPARED.get();
+	}
+
+	/**
+	 * Returns how many of the encoded images prepared so far have been sent unchanged
+	 */
+	static long getPassedThroughCount() {
+		return PASSED_THROUGH.get();
+	}
+
+	//A JPEG that needs neither the grayscale conversion nor the resize would only lose quality by being re-encoded
+	private static boolean canPassThrough(ImageReader reader, int width, int height, SearchParameters optionals)
+			throws IOException {
+		if (!"jpeg".equalsIgnoreCase(reader.getFormatName())) {
+			return false;
+		}
+		if (optionals.getMinSize() >= 0 && Math.min(width, height) != optionals.getMinSize()) {
+			return false;
+		}
+		if (optionals.isColor()) {
+			return true;
+		}
+		ImageTypeSpecifier type = reader.getRawImageType(0);
+		return type != null && type.getNumBands() == 1;
+	}
+
+	/**
+	 * Returns how many source pixels, in each direction, the decoder can skip for every pixel it keeps, so that the
+	 * decoded image is still large enough to be reduced to the minimum size with the requested quality. Filtered
+	 * reductions keep at least twice the target size, so that every output pixel still averages several inputs: a
+	 * 4000x3000 image with a minimum size of 240 is read every 6 pixels, into a 667x500 raster.
+	 */
+	private static int getSubsampling(int width, int height, SearchParameters optionals) {
+		int minSize = optionals.getMinSize();
+		if (minSize <= 0) {
+			return 1;
+		}
+		int required = optionals.getScalingQuality() == ScalingQuality.FAST ? minSize : minSize * 2;
+		return Math.max(1, Math.min(width, height) / required);
+	}
+
+	//The width and height are those of the original image, which may have been decoded at a lower resolution
+	private static BufferedImage transform(BufferedImage input, int width, int height, SearchParameters optionals) {
+		boolean color = optionals.isColor();
+		int minSize = optionals.getMinSize();
+		//Convert to b/w if required
+		BufferedImage output = color ? input : Grayscale.convert(input);
+		//Resize if required, otherwise make sure there is no alpha channel, which JPEG doesn't have
+		if (minSize >= 0) {
+			int smallestImageSize = Math.min(width, height);
+			float scaleFactor = (float) minSize / smallestImageSize;
+			int newWidth = Math.max(1, Math.round(width * scaleFactor));
+			int newHeight = Math.max(1, Math.round(height * scaleFactor));
+			output = Downscaler.resize(output, newWidth, newHeight, optionals.getScalingQuality());
+		} else if (color) {
+			output = toRGB(output);
+		}
+		return output;
+	}
+
+	private static BufferedImage toRGB(BufferedImage input) {
+		if (input.getType() == BufferedImage.TYPE_INT_RGB || input.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+			return input;
+		}
+		BufferedImage output = new BufferedImage(input.getWidth(), input.getHeight(), BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2d = output.createGraphics();
+		g2d.drawImage(input, 0, 0, null);
+		g2d.dispose();
+		return output;
+	}
+}
@@ -0,0 +1,67 @@
+package com.noxwizard.jcraftar;
+
+import java.io.IOException;
+import java.util.concurrent.Future;
+import org.apache.http.HttpResponse;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * The result of an asynchronous request: completes with the JSON body of the response once it has been received.
+ * Cancelling it aborts the underlying request.
+ *
+ * @author Stefano Zanini
+ */
+class JSONFuture extends BasicFuture<JSONObject> {
+
+	private volatile Future<HttpResponse> request;
+
+	JSONFuture(FutureCallback<JSONObject> callback) {
+		super(callback);
+	}
+
+	/**
+	 * Returns the callback to be passed to the transport, which completes this future
+	 */
+	FutureCallback<HttpResponse> getResponseCallback() {
+		return new FutureCallback<HttpResponse>() {
+			@Override
+			public void completed(HttpResponse response) {
+				try {
+					JSONFuture.this.completed(Recognition.readResponse(response));
+				} catch (IOException | JSONException e) {
+					JSONFuture.this.failed(e);
+				}
+			}
+
+			@Override
+			public void failed(Exception ex) {
+				JSONFuture.this.failed(ex);
+			}
+
+			@Override
+			public void cancelled() {
+				JSONFuture.this.cancel();
+			}
+		};
+	}
+
+	void setRequest(Future<HttpResponse> request) {
+		this.request = request;
+		if (isCancelled()) {
+			request.cancel(true);
+		}
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		boolean cancelled = super.cancel(mayInterruptIfRunning);
+		Future<HttpResponse> r = request;
+		if (cancelled && r != null) {
+			r.cancel(true);
+		}
+		return cancelled;
+	}
+}
@@ -0,0 +1,98 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.SearchParameters;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import org.w3c.dom.Node;
+
+/**
+ * Encodes query images as JPEG with the quality, chroma subsampling and progressive mode of the search parameters.
+ * Writers are taken from a small shared pool and put back after each image, so the writer lookup doesn't happen for
+ * every image even when each image is encoded on a new thread; writers which don't fit back in the pool are disposed.
+ * Grayscale images are written as single channel JPEGs.
+ *
+ * @author Stefano Zanini
+ */
+class JpegEncoder {
+
+	private static final String METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+
+	//Idle writers, at most one per processor since encoding doesn't wait on anything
+	private static final BlockingQueue<ImageWriter> WRITERS = new ArrayBlockingQueue<>(
+			Runtime.getRuntime().availableProcessors());
+
+	private JpegEncoder() {
+	}
+
+	static byte[] encode(BufferedImage image, SearchParameters optionals) throws IOException {
+		ImageWriter writer = WRITERS.poll();
+		if (writer == null) {
+			Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+			if (!writers.hasNext()) {
+				throw new IOException("No JPEG encoder available");
+			}
+			writer = writers.next();
+		}
+		try {
+			return encode(writer, image, optionals);
+		} finally {
+			writer.reset();
+			if (!WRITERS.offer(writer)) {
+				writer.dispose();
+			}
+		}
+	}
+
+	private static byte[] encode(ImageWriter writer, BufferedImage image, SearchParameters optionals)
+			throws IOException {
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		param.setCompressionQuality(optionals.getJpegQuality());
+		param.setProgressiveMode(optionals.isProgressive()
+				? ImageWriteParam.MODE_DEFAULT
+				: ImageWriteParam.MODE_DISABLED);
+		IIOMetadata metadata = null;
+		if (!optionals.isChromaSubsampling() && image.getColorModel().getNumColorComponents() > 1) {
+			metadata = getFullChromaMetadata(writer, image, param);
+		}
+
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+		//A memory cache avoids ImageIO spilling the output to a temporary file
+		try (ImageOutputStream ios = new MemoryCacheImageOutputStream(encoded)) {
+			writer.setOutput(ios);
+			writer.write(null, new IIOImage(image, null, metadata), param);
+		}
+		return encoded.toByteArray();
+	}
+
+	//Sets every component to 1x1 sampling (4:4:4), while the writer defaults to 2x2 for the luminance (4:2:0)
+	private static IIOMetadata getFullChromaMetadata(ImageWriter writer, BufferedImage image, ImageWriteParam param)
+			throws IOException {
+		IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(image), param);
+		IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(METADATA_FORMAT);
+		Node sof = root.getElementsByTagName("sof").item(0);
+		if (sof == null) {
+			return null;
+		}
+		for (Node component = sof.getFirstChild(); component != null; component = component.getNextSibling()) {
+			IIOMetadataNode spec = (IIOMetadataNode) component;
+			spec.setAttribute("HsamplingFactor", "1");
+			spec.setAttribute("VsamplingFactor", "1");
+		}
+		metadata.setFromTree(METADATA_FORMAT, root);
+		return metadata;
+	}
+}
@@ -1,8 +1,20 @@
 package com.noxwizard.jcraftar;
 
+import com.noxwizard.jcraftar.datapassing.CacheStats;
+import com.noxwizard.jcraftar.datapassing.Page;
+import com.noxwizard.jcraftar.model.App;
+import com.noxwizard.jcraftar.model.Bundle;
+import com.noxwizard.jcraftar.model.Collection;
+import com.noxwizard.jcraftar.model.Image;
+import com.noxwizard.jcraftar.model.Item;
+import com.noxwizard.jcraftar.model.Media;
+import com.noxwizard.jcraftar.model.Tag;
+import com.noxwizard.jcraftar.model.Token;
+import com.noxwizard.jcraftar.model.Version;
 import java.io.File;
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -22,6 +34,47 @@ public class Management {
 		PROXY = null;
 	}
 
+	/**
+	 * Keeps the objects fetched by uuid, so that repeated get calls don't reach the server. Objects are evicted when
+	 * more than maxEntries are cached, least recently used first, and expire after ttlMillis; update and delete calls
+	 * made through this class drop the object they change. Replaces the current cache, if any.
+	 *
+	 * @param maxEntries the maximum number of cached objects
+	 * @param ttlMillis how long an object is cached, in milliseconds
+	 * @throws CatchoomException if the parameters are incorrect
+	 */
+	public static void enableCache(int maxEntries, long ttlMillis) throws CatchoomException {
+		BoundedCache.validate(maxEntries, ttlMillis);
+		Commons.setCache(new ObjectCache(maxEntries, ttlMillis));
+	}
+
+	/**
+	 * Drops the cache, if any; get calls will reach the server again.
+	 */
+	public static void disableCache() {
+		Commons.setCache(null);
+	}
+
+	/**
+	 * Returns the counters of the cache enabled with {@link #enableCache(int, long)}.
+	 *
+	 * @return the cache statistics, or null if the cache is disabled
+	 */
+	public static CacheStats getCacheStats() {
+		ObjectCache cache = Commons.getCache();
+		return cache != null ? cache.getStats() : null;
+	}
+
+	/**
+	 * Returns how many get calls didn't make their own request, because an identical one was already in progress and
+	 * they shared its result.
+	 *
+	 * @return the number of coalesced get calls since the class was loaded
+	 */
+	public static long getCoalescedCalls() {
+		return Commons.getCoalescedCalls();
+	}
+
 	private static String getObjectUrl(String objectType, String uuid) {
 		return String.format("/api/%s/%s/%s/", Settings.MANAGEMENT_API_VERSION, objectType, uuid);
 	}
@@ -61,6 +114,147 @@ public class Management {
 		return Commons.getObjectList(apiKey, "collection", limit, offset, filter, PROXY);
 	}
 
+	/**
+	 * Return a page of collections, together with their total count and the offsets of the neighbouring pages
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of collections in the page
+	 * @param offset the starting collection, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return the page with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static Page getCollectionPage(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObjectPage(apiKey, "collection", limit, offset, filter, PROXY);
+	}
+
+	/**
+	 * Return a list of collections as model objects, paginated by limit and offset
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of collections in the result, for pagination purpose
+	 * @param offset the starting collection, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return the collections, with uuids in place of the uris of the objects they refer to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static List<Collection> getCollectionModelList(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModelList(apiKey, "collection", limit, offset, filter, Collection.class, PROXY);
+	}
+
+	/**
+	 * Pass a list of collections, paginated by limit and offset, to the visitor one at a time while the response is
+	 * being read, so that memory use doesn't grow with the page size
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of collections in the result, for pagination purpose
+	 * @param offset the starting collection, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @param visitor receives the collections, and can stop the listing
+	 * @return the number of collections passed to the visitor
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static int visitCollectionList(String apiKey, int limit, int offset, JSONObject filter, ObjectVisitor<Collection> visitor)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.visitObjectList(apiKey, "collection", limit, offset, filter, Collection.class, visitor, PROXY);
+	}
+
+	/**
+	 * Return a collection as a model object, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the collection uuid
+	 * @return the collection, with uuids in place of the uris of the objects it refers to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static Collection getCollectionModel(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModel(apiKey, "collection", uuid, Collection.class, PROXY);
+	}
+
+	/**
+	 * Return an iterator over all the collections matching the filtering criterias, fetched
+	 * Settings.DEFAULT_PAGE_SIZE at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamCollections(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return streamCollections(apiKey, Settings.DEFAULT_PAGE_SIZE, filter);
+	}
+
+	/**
+	 * Return an iterator over all the collections matching the filtering criterias, fetched
+	 * pageSize at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of collections fetched with each request
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamCollections(String apiKey, int pageSize, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return PagedIterator.open(apiKey, "collection", pageSize, filter, PROXY);
+	}
+
+	/**
+	 * Return all the collections matching the filtering criterias, fetching Settings.DEFAULT_FETCH_PARALLELISM pages of
+	 * Settings.DEFAULT_PAGE_SIZE collections at a time
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return a JSON array with all the collections, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllCollections(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return getAllCollections(apiKey, Settings.DEFAULT_PAGE_SIZE, Settings.DEFAULT_FETCH_PARALLELISM, filter);
+	}
+
+	/**
+	 * Return all the collections matching the filtering criterias, fetching up to parallelism pages at a time
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of collections fetched with each request
+	 * @param parallelism the maximum number of concurrent requests
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return a JSON array with all the collections, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllCollections(String apiKey, int pageSize, int parallelism, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return ParallelListFetcher.fetchAll(apiKey, "collection", pageSize, parallelism, filter, PROXY);
+	}
+
 	/**
 	 * Return a collection, identified by uuid
 	 *
@@ -168,6 +362,147 @@ public class Management {
 		return Commons.getObjectList(apiKey, "item", limit, offset, filter, PROXY);
 	}
 
+	/**
+	 * Return a page of items, together with their total count and the offsets of the neighbouring pages
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of items in the page
+	 * @param offset the starting item, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>collection__uuid</i>, <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return the page with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static Page getItemPage(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObjectPage(apiKey, "item", limit, offset, filter, PROXY);
+	}
+
+	/**
+	 * Return a list of items as model objects, paginated by limit and offset
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of items in the result, for pagination purpose
+	 * @param offset the starting item, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>collection__uuid</i>, <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return the items, with uuids in place of the uris of the objects they refer to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static List<Item> getItemModelList(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModelList(apiKey, "item", limit, offset, filter, Item.class, PROXY);
+	}
+
+	/**
+	 * Pass a list of items, paginated by limit and offset, to the visitor one at a time while the response is
+	 * being read, so that memory use doesn't grow with the page size
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of items in the result, for pagination purpose
+	 * @param offset the starting item, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>collection__uuid</i>, <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @param visitor receives the items, and can stop the listing
+	 * @return the number of items passed to the visitor
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static int visitItemList(String apiKey, int limit, int offset, JSONObject filter, ObjectVisitor<Item> visitor)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.visitObjectList(apiKey, "item", limit, offset, filter, Item.class, visitor, PROXY);
+	}
+
+	/**
+	 * Return an item as a model object, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the item uuid
+	 * @return the item, with uuids in place of the uris of the objects it refers to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static Item getItemModel(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModel(apiKey, "item", uuid, Item.class, PROXY);
+	}
+
+	/**
+	 * Return an iterator over all the items matching the filtering criterias, fetched
+	 * Settings.DEFAULT_PAGE_SIZE at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>collection__uuid</i>, <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamItems(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return streamItems(apiKey, Settings.DEFAULT_PAGE_SIZE, filter);
+	}
+
+	/**
+	 * Return an iterator over all the items matching the filtering criterias, fetched
+	 * pageSize at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of items fetched with each request
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>collection__uuid</i>, <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamItems(String apiKey, int pageSize, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return PagedIterator.open(apiKey, "item", pageSize, filter, PROXY);
+	}
+
+	/**
+	 * Return all the items matching the filtering criterias, fetching Settings.DEFAULT_FETCH_PARALLELISM pages of
+	 * Settings.DEFAULT_PAGE_SIZE items at a time
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>collection__uuid</i>, <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return a JSON array with all the items, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllItems(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return getAllItems(apiKey, Settings.DEFAULT_PAGE_SIZE, Settings.DEFAULT_FETCH_PARALLELISM, filter);
+	}
+
+	/**
+	 * Return all the items matching the filtering criterias, fetching up to parallelism pages at a time
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of items fetched with each request
+	 * @param parallelism the maximum number of concurrent requests
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>collection__uuid</i>, <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return a JSON array with all the items, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllItems(String apiKey, int pageSize, int parallelism, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return ParallelListFetcher.fetchAll(apiKey, "item", pageSize, parallelism, filter, PROXY);
+	}
+
 	/**
 	 * Return an item, identified by uuid
 	 *
@@ -338,79 +673,234 @@ public class Management {
 	}
 
 	/**
-	 * Return an image, identified by uuid
+	 * Return a page of images, together with their total count and the offsets of the neighbouring pages
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the image uuid
-	 * @return a JSON object with the server response
+	 * @param limit the maximum number of images in the page
+	 * @param offset the starting image, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>item__uuid</i>, <i>item__name</i>, <i>item__name__contains</i>,
+	 * <i>item__collection__uuid</i>, <i>item__collection__name</i>, <i>item__collection__name__contains</i>
+	 * and <i>status</i> ('ER' or 'OK')
+	 * @return the page with the server response
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject getImage(String apiKey, String uuid)
+	public static Page getImagePage(String apiKey, int limit, int offset, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObject(apiKey, "image", uuid, PROXY);
+		return Commons.getObjectPage(apiKey, "image", limit, offset, filter, PROXY);
 	}
 
 	/**
-	 * Create an image from a filename, belongs to item
+	 * Return a list of images as model objects, paginated by limit and offset
 	 *
 	 * @param apiKey your API key
-	 * @param item the item the new image should be added to
-	 * @param filename the path to the image file
-	 * @return a JSON object with the server response
+	 * @param limit the maximum number of images in the result, for pagination purpose
+	 * @param offset the starting image, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>item__uuid</i>, <i>item__name</i>, <i>item__name__contains</i>,
+	 * <i>item__collection__uuid</i>, <i>item__collection__name</i>, <i>item__collection__name__contains</i>
+	 * and <i>status</i> ('ER' or 'OK')
+	 * @return the images, with uuids in place of the uris of the objects they refer to
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject createImage(String apiKey, String item, String filename)
+	public static List<Image> getImageModelList(String apiKey, int limit, int offset, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		File file = new File(filename);
-		JSONObject data = new JSONObject();
-		data.put("item", getObjectUrl("item", item));
-		return Commons.createObjectMultipart(apiKey, "image", file, data, PROXY);
+		return Commons.getModelList(apiKey, "image", limit, offset, filter, Image.class, PROXY);
 	}
 
 	/**
-	 * Update the image file, identified by uuid
+	 * Pass a list of images, paginated by limit and offset, to the visitor one at a time while the response is
+	 * being read, so that memory use doesn't grow with the page size
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the image uuid
-	 * @param filename the path to the new image file
-	 * @return a JSON object with the server response
+	 * @param limit the maximum number of images in the result, for pagination purpose
+	 * @param offset the starting image, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>item__uuid</i>, <i>item__name</i>, <i>item__name__contains</i>,
+	 * <i>item__collection__uuid</i>, <i>item__collection__name</i>, <i>item__collection__name__contains</i>
+	 * and <i>status</i> ('ER' or 'OK')
+	 * @param visitor receives the images, and can stop the listing
+	 * @return the number of images passed to the visitor
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject updateImage(String apiKey, String uuid, String filename)
+	public static int visitImageList(String apiKey, int limit, int offset, JSONObject filter, ObjectVisitor<Image> visitor)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		File file = new File(filename);
-		return Commons.updateObjectMultipart(apiKey, "image", uuid, file, null, PROXY);
+		return Commons.visitObjectList(apiKey, "image", limit, offset, filter, Image.class, visitor, PROXY);
 	}
 
 	/**
-	 * Delete an image, identified by uuid
+	 * Return an image as a model object, identified by uuid
 	 *
 	 * @param apiKey your API key
 	 * @param uuid the image uuid
-	 * @return a JSON object with the server response
+	 * @return the image, with uuids in place of the uris of the objects it refers to
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject deleteImage(String apiKey, String uuid)
+	public static Image getImageModel(String apiKey, String uuid)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.deleteObject(apiKey, "image", uuid, PROXY);
+		return Commons.getModel(apiKey, "image", uuid, Image.class, PROXY);
 	}
-	//</editor-fold>
 
-	//<editor-fold desc="Tokens management" defaultstate="collapsed">
 	/**
-	 * Returns the number of tokens matching the filtering criterias.
+	 * Return an iterator over all the images matching the filtering criterias, fetched
+	 * Settings.DEFAULT_PAGE_SIZE at a time while iterating
 	 *
 	 * @param apiKey your API key
-	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
-	 * <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>item__uuid</i>, <i>item__name</i>, <i>item__name__contains</i>,
+	 * <i>item__collection__uuid</i>, <i>item__collection__name</i>, <i>item__collection__name__contains</i>
+	 * and <i>status</i> ('ER' or 'OK')
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamImages(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return streamImages(apiKey, Settings.DEFAULT_PAGE_SIZE, filter);
+	}
+
+	/**
+	 * Return an iterator over all the images matching the filtering criterias, fetched
+	 * pageSize at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of images fetched with each request
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>item__uuid</i>, <i>item__name</i>, <i>item__name__contains</i>,
+	 * <i>item__collection__uuid</i>, <i>item__collection__name</i>, <i>item__collection__name__contains</i>
+	 * and <i>status</i> ('ER' or 'OK')
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamImages(String apiKey, int pageSize, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return PagedIterator.open(apiKey, "image", pageSize, filter, PROXY);
+	}
+
+	/**
+	 * Return all the images matching the filtering criterias, fetching Settings.DEFAULT_FETCH_PARALLELISM pages of
+	 * Settings.DEFAULT_PAGE_SIZE images at a time
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>item__uuid</i>, <i>item__name</i>, <i>item__name__contains</i>,
+	 * <i>item__collection__uuid</i>, <i>item__collection__name</i>, <i>item__collection__name__contains</i>
+	 * and <i>status</i> ('ER' or 'OK')
+	 * @return a JSON array with all the images, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllImages(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return getAllImages(apiKey, Settings.DEFAULT_PAGE_SIZE, Settings.DEFAULT_FETCH_PARALLELISM, filter);
+	}
+
+	/**
+	 * Return all the images matching the filtering criterias, fetching up to parallelism pages at a time
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of images fetched with each request
+	 * @param parallelism the maximum number of concurrent requests
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>item__uuid</i>, <i>item__name</i>, <i>item__name__contains</i>,
+	 * <i>item__collection__uuid</i>, <i>item__collection__name</i>, <i>item__collection__name__contains</i>
+	 * and <i>status</i> ('ER' or 'OK')
+	 * @return a JSON array with all the images, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllImages(String apiKey, int pageSize, int parallelism, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return ParallelListFetcher.fetchAll(apiKey, "image", pageSize, parallelism, filter, PROXY);
+	}
+
+	/**
+	 * Return an image, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the image uuid
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject getImage(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObject(apiKey, "image", uuid, PROXY);
+	}
+
+	/**
+	 * Create an image from a filename, belongs to item
+	 *
+	 * @param apiKey your API key
+	 * @param item the item the new image should be added to
+	 * @param filename the path to the image file
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject createImage(String apiKey, String item, String filename)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		File file = new File(filename);
+		JSONObject data = new JSONObject();
+		data.put("item", getObjectUrl("item", item));
+		return Commons.createObjectMultipart(apiKey, "image", file, data, PROXY);
+	}
+
+	/**
+	 * Update the image file, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the image uuid
+	 * @param filename the path to the new image file
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject updateImage(String apiKey, String uuid, String filename)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		File file = new File(filename);
+		return Commons.updateObjectMultipart(apiKey, "image", uuid, file, null, PROXY);
+	}
+
+	/**
+	 * Delete an image, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the image uuid
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject deleteImage(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.deleteObject(apiKey, "image", uuid, PROXY);
+	}
+	//</editor-fold>
+
+	//<editor-fold desc="Tokens management" defaultstate="collapsed">
+	/**
+	 * Returns the number of tokens matching the filtering criterias.
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
+	 * <i>collection__name</i> and <i>collection__name__contains</i>
 	 * @return the number of tokens matching the filtering criterias
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
@@ -425,449 +915,1266 @@ public class Management {
 	 * Return a list of tokens, paginated by limit and offset and filtered by collection
 	 *
 	 * @param apiKey your API key
-	 * @param limit the maximum number of items in the result, for pagination purpose
-	 * @param offset the starting item, for pagination purpose
-	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
-	 * <i>collection__name</i> and <i>collection__name__contains</i>
-	 * @return a JSON array with the server response
+	 * @param limit the maximum number of items in the result, for pagination purpose
+	 * @param offset the starting item, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
+	 * <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return a JSON array with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getTokenList(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObjectList(apiKey, "token", limit, offset, filter, PROXY);
+	}
+
+	/**
+	 * Return a page of tokens, together with their total count and the offsets of the neighbouring pages
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of tokens in the page
+	 * @param offset the starting token, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
+	 * <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return the page with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static Page getTokenPage(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObjectPage(apiKey, "token", limit, offset, filter, PROXY);
+	}
+
+	/**
+	 * Return a list of tokens as model objects, paginated by limit and offset
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of tokens in the result, for pagination purpose
+	 * @param offset the starting token, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
+	 * <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return the tokens, with uuids in place of the uris of the objects they refer to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static List<Token> getTokenModelList(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModelList(apiKey, "token", limit, offset, filter, Token.class, PROXY);
+	}
+
+	/**
+	 * Pass a list of tokens, paginated by limit and offset, to the visitor one at a time while the response is
+	 * being read, so that memory use doesn't grow with the page size
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of tokens in the result, for pagination purpose
+	 * @param offset the starting token, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
+	 * <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @param visitor receives the tokens, and can stop the listing
+	 * @return the number of tokens passed to the visitor
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static int visitTokenList(String apiKey, int limit, int offset, JSONObject filter, ObjectVisitor<Token> visitor)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.visitObjectList(apiKey, "token", limit, offset, filter, Token.class, visitor, PROXY);
+	}
+
+	/**
+	 * Return an iterator over all the tokens matching the filtering criterias, fetched
+	 * Settings.DEFAULT_PAGE_SIZE at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
+	 * <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamTokens(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return streamTokens(apiKey, Settings.DEFAULT_PAGE_SIZE, filter);
+	}
+
+	/**
+	 * Return an iterator over all the tokens matching the filtering criterias, fetched
+	 * pageSize at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of tokens fetched with each request
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
+	 * <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamTokens(String apiKey, int pageSize, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return PagedIterator.open(apiKey, "token", pageSize, filter, PROXY);
+	}
+
+	/**
+	 * Return all the tokens matching the filtering criterias, fetching Settings.DEFAULT_FETCH_PARALLELISM pages of
+	 * Settings.DEFAULT_PAGE_SIZE tokens at a time
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
+	 * <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return a JSON array with all the tokens, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllTokens(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return getAllTokens(apiKey, Settings.DEFAULT_PAGE_SIZE, Settings.DEFAULT_FETCH_PARALLELISM, filter);
+	}
+
+	/**
+	 * Return all the tokens matching the filtering criterias, fetching up to parallelism pages at a time
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of tokens fetched with each request
+	 * @param parallelism the maximum number of concurrent requests
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>collection__uuid</i>,
+	 * <i>collection__name</i> and <i>collection__name__contains</i>
+	 * @return a JSON array with all the tokens, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllTokens(String apiKey, int pageSize, int parallelism, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return ParallelListFetcher.fetchAll(apiKey, "token", pageSize, parallelism, filter, PROXY);
+	}
+
+	/**
+	 * Create a token, belongs to collection
+	 *
+	 * @param apiKey your API key
+	 * @param collection the collection the token should be added to
+	 * @param tags the token tags
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject createToken(String apiKey, String collection, JSONArray tags)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		JSONObject data = new JSONObject();
+		data.put("collection", getObjectUrl("collection", collection));
+		if (tags != null) {
+			JSONArray parsedTags = new JSONArray();
+			for (Object tag : tags) {
+				parsedTags.put(getObjectUrl("tag", tag.toString()));
+			}
+			data.put("tags", parsedTags);
+		}
+		return Commons.createObject(apiKey, "token", data, PROXY);
+	}
+
+	/**
+	 * Update the tags for a given token
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the token uuid
+	 * @param tags the token new tags
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject updateToken(String apiKey, String uuid, JSONArray tags)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		JSONObject data;
+		if (tags != null) {
+			data = new JSONObject();
+			JSONArray parsedTags = new JSONArray();
+			for (Object tag : tags) {
+				parsedTags.put(getObjectUrl("tag", tag.toString()));
+			}
+			data.put("tags", parsedTags);
+		} else {
+			data = null;
+		}
+		return Commons.updateObject(apiKey, "token", uuid, data, PROXY);
+	}
+
+	/**
+	 * Delete a token, identified by @uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the token uuid
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject deleteToken(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.deleteObject(apiKey, "token", uuid, PROXY);
+	}
+	//</editor-fold>
+
+	//<editor-fold desc="Media objects management" defaultstate="collapsed">
+	/**
+	 * Returns the number of media matching the filtering criterias.
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
+	 * @return the number of media matching the filtering criterias
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static int getMediaCount(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.countObjectsInList(apiKey, "media", filter, PROXY);
+	}
+
+	/**
+	 * Return a list of media objects, paginated by limit and offset
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of items in the result, for pagination purpose
+	 * @param offset the starting item, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
+	 * @return a JSON array with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getMediaList(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObjectList(apiKey, "media", limit, offset, filter, PROXY);
+	}
+
+	/**
+	 * Return a page of media objects, together with their total count and the offsets of the neighbouring pages
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of media objects in the page
+	 * @param offset the starting media object, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
+	 * @return the page with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static Page getMediaPage(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObjectPage(apiKey, "media", limit, offset, filter, PROXY);
+	}
+
+	/**
+	 * Return a list of media objects as model objects, paginated by limit and offset
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of media objects in the result, for pagination purpose
+	 * @param offset the starting media object, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
+	 * @return the media objects, with uuids in place of the uris of the objects they refer to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static List<Media> getMediaModelList(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModelList(apiKey, "media", limit, offset, filter, Media.class, PROXY);
+	}
+
+	/**
+	 * Pass a list of media objects, paginated by limit and offset, to the visitor one at a time while the response is
+	 * being read, so that memory use doesn't grow with the page size
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of media objects in the result, for pagination purpose
+	 * @param offset the starting media object, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
+	 * @param visitor receives the media objects, and can stop the listing
+	 * @return the number of media objects passed to the visitor
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static int visitMediaList(String apiKey, int limit, int offset, JSONObject filter, ObjectVisitor<Media> visitor)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.visitObjectList(apiKey, "media", limit, offset, filter, Media.class, visitor, PROXY);
+	}
+
+	/**
+	 * Return a media object as a model object, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the media object uuid
+	 * @return the media object, with uuids in place of the uris of the objects it refers to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static Media getMediaModel(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModel(apiKey, "media", uuid, Media.class, PROXY);
+	}
+
+	/**
+	 * Return an iterator over all the media objects matching the filtering criterias, fetched
+	 * Settings.DEFAULT_PAGE_SIZE at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamMedia(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return streamMedia(apiKey, Settings.DEFAULT_PAGE_SIZE, filter);
+	}
+
+	/**
+	 * Return an iterator over all the media objects matching the filtering criterias, fetched
+	 * pageSize at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of media objects fetched with each request
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamMedia(String apiKey, int pageSize, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return PagedIterator.open(apiKey, "media", pageSize, filter, PROXY);
+	}
+
+	/**
+	 * Return all the media objects matching the filtering criterias, fetching Settings.DEFAULT_FETCH_PARALLELISM pages
+	 * of Settings.DEFAULT_PAGE_SIZE media objects at a time
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
+	 * @return a JSON array with all the media objects, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllMedia(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return getAllMedia(apiKey, Settings.DEFAULT_PAGE_SIZE, Settings.DEFAULT_FETCH_PARALLELISM, filter);
+	}
+
+	/**
+	 * Return all the media objects matching the filtering criterias, fetching up to parallelism pages at a time
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of media objects fetched with each request
+	 * @param parallelism the maximum number of concurrent requests
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
+	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
+	 * @return a JSON array with all the media objects, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllMedia(String apiKey, int pageSize, int parallelism, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return ParallelListFetcher.fetchAll(apiKey, "media", pageSize, parallelism, filter, PROXY);
+	}
+
+	/**
+	 * Return a media object, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the media uuid
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject getMedia(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObject(apiKey, "media", uuid, PROXY);
+	}
+
+	/**
+	 * Create a media object from a filename, belongs to item
+	 *
+	 * @param apiKey your API key
+	 * @param filename the path to the file
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject createMedia(String apiKey, String filename)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		File file = new File(filename);
+		return Commons.createObjectMultipart(apiKey, "media", file, null, PROXY);
+	}
+
+	/**
+	 * Create a video media
+	 *
+	 * @param apiKey your API key
+	 * @param url the video url
+	 * @param name the video name
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject createVideoMedia(String apiKey, String url, String name)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		String videoName;
+		if (name != null) {
+			videoName = name;
+		} else {
+			String[] splitUrl = url.split("/");
+			videoName = splitUrl[splitUrl.length - 1];
+		}
+		JSONObject data = new JSONObject();
+		data.put("mimetype", "video");
+		data.put("name", videoName);
+		JSONObject meta = new JSONObject();
+		meta.put("video-url", url);
+		data.put("meta", meta);
+		return Commons.createObject(apiKey, "media", data, PROXY);
+	}
+
+	/**
+	 * Delete an image, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the media uuid
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject deleteMedia(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.deleteObject(apiKey, "media", uuid, PROXY);
+	}
+	//</editor-fold>
+
+	//<editor-fold desc="Tags management" defaultstate="collapsed">
+	/**
+	 * Returns the number of tags matching the filtering criterias.
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return the number of tags matching the filtering criterias
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static int getTagsCount(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.countObjectsInList(apiKey, "tag", filter, PROXY);
+	}
+
+	/**
+	 * Return a list of tags, paginated by limit and offset and filtered by collection
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of items in the result, for pagination purpose
+	 * @param offset the starting item, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return a JSON array with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getTagList(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObjectList(apiKey, "tag", limit, offset, filter, PROXY);
+	}
+
+	/**
+	 * Return a page of tags, together with their total count and the offsets of the neighbouring pages
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of tags in the page
+	 * @param offset the starting tag, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return the page with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static Page getTagPage(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObjectPage(apiKey, "tag", limit, offset, filter, PROXY);
+	}
+
+	/**
+	 * Return a list of tags as model objects, paginated by limit and offset
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of tags in the result, for pagination purpose
+	 * @param offset the starting tag, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return the tags, with uuids in place of the uris of the objects they refer to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static List<Tag> getTagModelList(String apiKey, int limit, int offset, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModelList(apiKey, "tag", limit, offset, filter, Tag.class, PROXY);
+	}
+
+	/**
+	 * Pass a list of tags, paginated by limit and offset, to the visitor one at a time while the response is
+	 * being read, so that memory use doesn't grow with the page size
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of tags in the result, for pagination purpose
+	 * @param offset the starting tag, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @param visitor receives the tags, and can stop the listing
+	 * @return the number of tags passed to the visitor
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static int visitTagList(String apiKey, int limit, int offset, JSONObject filter, ObjectVisitor<Tag> visitor)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.visitObjectList(apiKey, "tag", limit, offset, filter, Tag.class, visitor, PROXY);
+	}
+
+	/**
+	 * Return a tag as a model object, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the tag uuid
+	 * @return the tag, with uuids in place of the uris of the objects it refers to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static Tag getTagModel(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModel(apiKey, "tag", uuid, Tag.class, PROXY);
+	}
+
+	/**
+	 * Return an iterator over all the tags matching the filtering criterias, fetched
+	 * Settings.DEFAULT_PAGE_SIZE at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamTags(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return streamTags(apiKey, Settings.DEFAULT_PAGE_SIZE, filter);
+	}
+
+	/**
+	 * Return an iterator over all the tags matching the filtering criterias, fetched
+	 * pageSize at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of tags fetched with each request
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamTags(String apiKey, int pageSize, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return PagedIterator.open(apiKey, "tag", pageSize, filter, PROXY);
+	}
+
+	/**
+	 * Return all the tags matching the filtering criterias, fetching Settings.DEFAULT_FETCH_PARALLELISM pages of
+	 * Settings.DEFAULT_PAGE_SIZE tags at a time
+	 *
+	 * @param apiKey your API key
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return a JSON array with all the tags, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllTags(String apiKey, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return getAllTags(apiKey, Settings.DEFAULT_PAGE_SIZE, Settings.DEFAULT_FETCH_PARALLELISM, filter);
+	}
+
+	/**
+	 * Return all the tags matching the filtering criterias, fetching up to parallelism pages at a time
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of tags fetched with each request
+	 * @param parallelism the maximum number of concurrent requests
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
+	 * <i>name__contains</i>
+	 * @return a JSON array with all the tags, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllTags(String apiKey, int pageSize, int parallelism, JSONObject filter)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return ParallelListFetcher.fetchAll(apiKey, "tag", pageSize, parallelism, filter, PROXY);
+	}
+
+	/**
+	 * Return an item, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the tag uuid
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject getTag(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObject(apiKey, "tag", uuid, PROXY);
+	}
+
+	/**
+	 * Create a tag with a given name, belonging to collection
+	 *
+	 * @param apiKey your API key
+	 * @param collection the collection the new tag should be added to
+	 * @param name the tag name
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject createTag(String apiKey, String collection, String name)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		JSONObject data = new JSONObject();
+		data.put("collection", getObjectUrl("collection", collection));
+		data.put("name", name);
+		return Commons.createObject(apiKey, "tag", data, PROXY);
+	}
+
+	/**
+	 * Delete a tag, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the tag uuid
+	 * @return a JSON object with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONObject deleteTag(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.deleteObject(apiKey, "tag", uuid, PROXY);
+	}
+	//</editor-fold>
+
+	//<editor-fold desc="Applications management" defaultstate="collapsed">
+	/**
+	 * Returns the number of apps matching the filtering criterias.
+	 *
+	 * @param apiKey your API key
+	 * @return the number of apps matching the filtering criterias
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static int getAppsCount(String apiKey)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.countObjectsInList(apiKey, "app", null, PROXY);
+	}
+
+	/**
+	 * Return a list of applications, paginated by limit and offset and filtered by collection
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of items in the result, for pagination purpose
+	 * @param offset the starting item, for pagination purpose
+	 * @return a JSON array with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAppList(String apiKey, int limit, int offset)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObjectList(apiKey, "app", limit, offset, null, PROXY);
+	}
+
+	/**
+	 * Return a page of applications, together with their total count and the offsets of the neighbouring pages
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of applications in the page
+	 * @param offset the starting application, for pagination purpose
+	 * @return the page with the server response
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static Page getAppPage(String apiKey, int limit, int offset)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getObjectPage(apiKey, "app", limit, offset, null, PROXY);
+	}
+
+	/**
+	 * Return a list of applications as model objects, paginated by limit and offset
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of applications in the result, for pagination purpose
+	 * @param offset the starting application, for pagination purpose
+	 * @return the applications, with uuids in place of the uris of the objects they refer to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static List<App> getAppModelList(String apiKey, int limit, int offset)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModelList(apiKey, "app", limit, offset, null, App.class, PROXY);
+	}
+
+	/**
+	 * Pass a list of applications, paginated by limit and offset, to the visitor one at a time while the response is
+	 * being read, so that memory use doesn't grow with the page size
+	 *
+	 * @param apiKey your API key
+	 * @param limit the maximum number of applications in the result, for pagination purpose
+	 * @param offset the starting application, for pagination purpose
+	 * @param visitor receives the applications, and can stop the listing
+	 * @return the number of applications passed to the visitor
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static int visitAppList(String apiKey, int limit, int offset, ObjectVisitor<App> visitor)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.visitObjectList(apiKey, "app", limit, offset, null, App.class, visitor, PROXY);
+	}
+
+	/**
+	 * Return an application as a model object, identified by uuid
+	 *
+	 * @param apiKey your API key
+	 * @param uuid the application uuid
+	 * @return the application, with uuids in place of the uris of the objects it refers to
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static App getAppModel(String apiKey, String uuid)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return Commons.getModel(apiKey, "app", uuid, App.class, PROXY);
+	}
+
+	/**
+	 * Return an iterator over all the applications, fetched
+	 * Settings.DEFAULT_PAGE_SIZE at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamApps(String apiKey)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return streamApps(apiKey, Settings.DEFAULT_PAGE_SIZE);
+	}
+
+	/**
+	 * Return an iterator over all the applications, fetched
+	 * pageSize at a time while iterating
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of applications fetched with each request
+	 * @return an iterator which must be closed if not consumed to the end
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static PagedIterator streamApps(String apiKey, int pageSize)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return PagedIterator.open(apiKey, "app", pageSize, null, PROXY);
+	}
+
+	/**
+	 * Return all the applications, fetching Settings.DEFAULT_FETCH_PARALLELISM pages of Settings.DEFAULT_PAGE_SIZE
+	 * applications at a time
+	 *
+	 * @param apiKey your API key
+	 * @return a JSON array with all the applications, in the same order as the paginated list
+	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
+	 * @throws IOException if something goes wrong in the interaction with the server
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
+	 */
+	public static JSONArray getAllApps(String apiKey)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		return getAllApps(apiKey, Settings.DEFAULT_PAGE_SIZE, Settings.DEFAULT_FETCH_PARALLELISM);
+	}
+
+	/**
+	 * Return all the applications, fetching up to parallelism pages at a time
+	 *
+	 * @param apiKey your API key
+	 * @param pageSize the number of applications fetched with each request
+	 * @param parallelism the maximum number of concurrent requests
+	 * @return a JSON array with all the applications, in the same order as the paginated list
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONArray getTokenList(String apiKey, int limit, int offset, JSONObject filter)
+	public static JSONArray getAllApps(String apiKey, int pageSize, int parallelism)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObjectList(apiKey, "token", limit, offset, filter, PROXY);
+		return ParallelListFetcher.fetchAll(apiKey, "app", pageSize, parallelism, null, PROXY);
 	}
 
 	/**
-	 * Create a token, belongs to collection
+	 * Return an application, identified by uuid
 	 *
 	 * @param apiKey your API key
-	 * @param collection the collection the token should be added to
-	 * @param tags the token tags
+	 * @param uuid the app uuid
 	 * @return a JSON object with the server response
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject createToken(String apiKey, String collection, JSONArray tags)
+	public static JSONObject getApp(String apiKey, String uuid)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		JSONObject data = new JSONObject();
-		data.put("collection", getObjectUrl("collection", collection));
-		if (tags != null) {
-			JSONArray parsedTags = new JSONArray();
-			for (Object tag : tags) {
-				parsedTags.put(getObjectUrl("tag", tag.toString()));
-			}
-			data.put("tags", parsedTags);
-		}
-		return Commons.createObject(apiKey, "token", data, PROXY);
+		return Commons.getObject(apiKey, "app", uuid, PROXY);
 	}
 
 	/**
-	 * Update the tags for a given token
+	 * Create an application with a given name, belonging to collection
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the token uuid
-	 * @param tags the token new tags
+	 * @param collection the collection the new app should be added to
+	 * @param name the new app name
 	 * @return a JSON object with the server response
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject updateToken(String apiKey, String uuid, JSONArray tags)
+	public static JSONObject createApp(String apiKey, String collection, String name)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		JSONObject data;
-		if (tags != null) {
-			data = new JSONObject();
-			JSONArray parsedTags = new JSONArray();
-			for (Object tag : tags) {
-				parsedTags.put(getObjectUrl("tag", tag.toString()));
-			}
-			data.put("tags", parsedTags);
-		} else {
-			data = null;
-		}
-		return Commons.updateObject(apiKey, "token", uuid, data, PROXY);
+		JSONObject data = new JSONObject();
+		data.put("name", name);
+		data.put("collection", getObjectUrl("collection", collection));
+		return Commons.createObject(apiKey, "app", data, PROXY);
 	}
 
 	/**
-	 * Delete a token, identified by @uuid
+	 * Delete an application, identified by uuid
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the token uuid
+	 * @param uuid the app uuid
 	 * @return a JSON object with the server response
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject deleteToken(String apiKey, String uuid)
+	public static JSONObject deleteApp(String apiKey, String uuid)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.deleteObject(apiKey, "token", uuid, PROXY);
+		return Commons.deleteObject(apiKey, "app", uuid, PROXY);
 	}
 	//</editor-fold>
 
-	//<editor-fold desc="Media objects management" defaultstate="collapsed">
+	//<editor-fold desc="SDK versions management" defaultstate="collapsed">
 	/**
-	 * Returns the number of media matching the filtering criterias.
+	 * Returns the number of versions matching the filtering criterias.
 	 *
 	 * @param apiKey your API key
-	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
-	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
-	 * @return the number of media matching the filtering criterias
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
+	 * <i>sdk_version</i>
+	 * @return the number of versions matching the filtering criterias
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static int getMediaCount(String apiKey, JSONObject filter)
+	public static int getVersionsCount(String apiKey, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.countObjectsInList(apiKey, "media", filter, PROXY);
+		return Commons.countObjectsInList(apiKey, "version", filter, PROXY);
 	}
 
 	/**
-	 * Return a list of media objects, paginated by limit and offset
+	 * Return a list of SDK versions, paginated by limit and offset
 	 *
 	 * @param apiKey your API key
 	 * @param limit the maximum number of items in the result, for pagination purpose
 	 * @param offset the starting item, for pagination purpose
-	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i>,
-	 * <i>name__contains</i>, <i>mimetype</i> and <i>mimetype__contains</i>
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
+	 * <i>sdk_version</i>
 	 * @return a JSON array with the server response
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONArray getMediaList(String apiKey, int limit, int offset, JSONObject filter)
+	public static JSONArray getVersionList(String apiKey, int limit, int offset, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObjectList(apiKey, "media", limit, offset, filter, PROXY);
+		return Commons.getObjectList(apiKey, "version", limit, offset, filter, PROXY);
 	}
 
 	/**
-	 * Return a media object, identified by uuid
+	 * Return a page of SDK versions, together with their total count and the offsets of the neighbouring pages
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the media uuid
-	 * @return a JSON object with the server response
+	 * @param limit the maximum number of SDK versions in the page
+	 * @param offset the starting SDK version, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
+	 * <i>sdk_version</i>
+	 * @return the page with the server response
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject getMedia(String apiKey, String uuid)
+	public static Page getVersionPage(String apiKey, int limit, int offset, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObject(apiKey, "media", uuid, PROXY);
+		return Commons.getObjectPage(apiKey, "version", limit, offset, filter, PROXY);
 	}
 
 	/**
-	 * Create a media object from a filename, belongs to item
+	 * Return a list of SDK versions as model objects, paginated by limit and offset
 	 *
 	 * @param apiKey your API key
-	 * @param filename the path to the file
-	 * @return a JSON object with the server response
+	 * @param limit the maximum number of SDK versions in the result, for pagination purpose
+	 * @param offset the starting SDK version, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
+	 * <i>sdk_version</i>
+	 * @return the SDK versions, with uuids in place of the uris of the objects they refer to
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject createMedia(String apiKey, String filename)
+	public static List<Version> getVersionModelList(String apiKey, int limit, int offset, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		File file = new File(filename);
-		return Commons.createObjectMultipart(apiKey, "media", file, null, PROXY);
+		return Commons.getModelList(apiKey, "version", limit, offset, filter, Version.class, PROXY);
 	}
 
 	/**
-	 * Create a video media
+	 * Pass a list of SDK versions, paginated by limit and offset, to the visitor one at a time while the response is
+	 * being read, so that memory use doesn't grow with the page size
 	 *
 	 * @param apiKey your API key
-	 * @param url the video url
-	 * @param name the video name
-	 * @return a JSON object with the server response
+	 * @param limit the maximum number of SDK versions in the result, for pagination purpose
+	 * @param offset the starting SDK version, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
+	 * <i>sdk_version</i>
+	 * @param visitor receives the SDK versions, and can stop the listing
+	 * @return the number of SDK versions passed to the visitor
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject createVideoMedia(String apiKey, String url, String name)
+	public static int visitVersionList(String apiKey, int limit, int offset, JSONObject filter, ObjectVisitor<Version> visitor)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		String videoName;
-		if (name != null) {
-			videoName = name;
-		} else {
-			String[] splitUrl = url.split("/");
-			videoName = splitUrl[splitUrl.length - 1];
-		}
-		JSONObject data = new JSONObject();
-		data.put("mimetype", "video");
-		data.put("name", videoName);
-		JSONObject meta = new JSONObject();
-		meta.put("video-url", url);
-		data.put("meta", meta);
-		return Commons.createObject(apiKey, "media", data, PROXY);
+		return Commons.visitObjectList(apiKey, "version", limit, offset, filter, Version.class, visitor, PROXY);
 	}
 
 	/**
-	 * Delete an image, identified by uuid
+	 * Return an SDK version as a model object, identified by uuid
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the media uuid
-	 * @return a JSON object with the server response
+	 * @param uuid the SDK version uuid
+	 * @return the SDK version, with uuids in place of the uris of the objects it refers to
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject deleteMedia(String apiKey, String uuid)
+	public static Version getVersionModel(String apiKey, String uuid)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.deleteObject(apiKey, "media", uuid, PROXY);
+		return Commons.getModel(apiKey, "version", uuid, Version.class, PROXY);
 	}
-	//</editor-fold>
 
-	//<editor-fold desc="Tags management" defaultstate="collapsed">
 	/**
-	 * Returns the number of tags matching the filtering criterias.
+	 * Return an iterator over all the SDK versions matching the filtering criterias, fetched
+	 * Settings.DEFAULT_PAGE_SIZE at a time while iterating
 	 *
 	 * @param apiKey your API key
-	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
-	 * <i>name__contains</i>
-	 * @return the number of tags matching the filtering criterias
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
+	 * <i>sdk_version</i>
+	 * @return an iterator which must be closed if not consumed to the end
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
-	 * @throws NoSuchAlgorithmException if TLS 1.2 is not available
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static int getTagsCount(String apiKey, JSONObject filter)
+	public static PagedIterator streamVersions(String apiKey, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.countObjectsInList(apiKey, "tag", filter, PROXY);
+		return streamVersions(apiKey, Settings.DEFAULT_PAGE_SIZE, filter);
 	}
 
 	/**
-	 * Return a list of tags, paginated by limit and offset and filtered by collection
+	 * Return an iterator over all the SDK versions matching the filtering criterias, fetched
+	 * pageSize at a time while iterating
 	 *
 	 * @param apiKey your API key
-	 * @param limit the maximum number of items in the result, for pagination purpose
-	 * @param offset the starting item, for pagination purpose
-	 * @param filter filtering criterias for reducing the result set; available criterias are <i>name</i> and
-	 * <i>name__contains</i>
-	 * @return a JSON array with the server response
+	 * @param pageSize the number of SDK versions fetched with each request
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
+	 * <i>sdk_version</i>
+	 * @return an iterator which must be closed if not consumed to the end
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONArray getTagList(String apiKey, int limit, int offset, JSONObject filter)
+	public static PagedIterator streamVersions(String apiKey, int pageSize, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObjectList(apiKey, "tag", limit, offset, filter, PROXY);
+		return PagedIterator.open(apiKey, "version", pageSize, filter, PROXY);
 	}
 
 	/**
-	 * Return an item, identified by uuid
+	 * Return all the SDK versions matching the filtering criterias, fetching Settings.DEFAULT_FETCH_PARALLELISM pages
+	 * of Settings.DEFAULT_PAGE_SIZE SDK versions at a time
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the tag uuid
-	 * @return a JSON object with the server response
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
+	 * <i>sdk_version</i>
+	 * @return a JSON array with all the SDK versions, in the same order as the paginated list
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject getTag(String apiKey, String uuid)
+	public static JSONArray getAllVersions(String apiKey, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObject(apiKey, "tag", uuid, PROXY);
+		return getAllVersions(apiKey, Settings.DEFAULT_PAGE_SIZE, Settings.DEFAULT_FETCH_PARALLELISM, filter);
 	}
 
 	/**
-	 * Create a tag with a given name, belonging to collection
+	 * Return all the SDK versions matching the filtering criterias, fetching up to parallelism pages at a time
 	 *
 	 * @param apiKey your API key
-	 * @param collection the collection the new tag should be added to
-	 * @param name the tag name
-	 * @return a JSON object with the server response
+	 * @param pageSize the number of SDK versions fetched with each request
+	 * @param parallelism the maximum number of concurrent requests
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
+	 * <i>sdk_version</i>
+	 * @return a JSON array with all the SDK versions, in the same order as the paginated list
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject createTag(String apiKey, String collection, String name)
+	public static JSONArray getAllVersions(String apiKey, int pageSize, int parallelism, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		JSONObject data = new JSONObject();
-		data.put("collection", getObjectUrl("collection", collection));
-		data.put("name", name);
-		return Commons.createObject(apiKey, "tag", data, PROXY);
+		return ParallelListFetcher.fetchAll(apiKey, "version", pageSize, parallelism, filter, PROXY);
 	}
 
 	/**
-	 * Delete a tag, identified by uuid
+	 * Return an SDK Version, identified by uuid
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the tag uuid
+	 * @param uuid the version uuid
 	 * @return a JSON object with the server response
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject deleteTag(String apiKey, String uuid)
+	public static JSONObject getVersion(String apiKey, String uuid)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.deleteObject(apiKey, "tag", uuid, PROXY);
+		return Commons.getObject(apiKey, "version", uuid, PROXY);
 	}
 	//</editor-fold>
 
-	//<editor-fold desc="Applications management" defaultstate="collapsed">
+	//<editor-fold desc="Collection bundles management" defaultstate="collapsed">
 	/**
-	 * Returns the number of apps matching the filtering criterias.
+	 * Returns the number of bundles matching the filtering criterias.
 	 *
 	 * @param apiKey your API key
-	 * @return the number of apps matching the filtering criterias
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>tag__name</i> and
+	 * <i>app__name</i>
+	 * @return the number of bundles matching the filtering criterias
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static int getAppsCount(String apiKey)
+	public static int getBundlesCount(String apiKey, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.countObjectsInList(apiKey, "app", null, PROXY);
+		return Commons.countObjectsInList(apiKey, "collectionbundle", filter, PROXY);
 	}
 
 	/**
-	 * Return a list of applications, paginated by limit and offset and filtered by collection
+	 * Return a list of bundles, paginated by limit and offset
 	 *
 	 * @param apiKey your API key
 	 * @param limit the maximum number of items in the result, for pagination purpose
 	 * @param offset the starting item, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>tag__name</i> and
+	 * <i>app__name</i>
 	 * @return a JSON array with the server response
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONArray getAppList(String apiKey, int limit, int offset)
+	public static JSONArray getBundleList(String apiKey, int limit, int offset, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObjectList(apiKey, "app", limit, offset, null, PROXY);
+		return Commons.getObjectList(apiKey, "collectionbundle", limit, offset, filter, PROXY);
 	}
 
 	/**
-	 * Return an application, identified by uuid
+	 * Return a page of collection bundles, together with their total count and the offsets of the neighbouring pages
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the app uuid
-	 * @return a JSON object with the server response
+	 * @param limit the maximum number of collection bundles in the page
+	 * @param offset the starting collection bundle, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>tag__name</i> and
+	 * <i>app__name</i>
+	 * @return the page with the server response
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject getApp(String apiKey, String uuid)
+	public static Page getBundlePage(String apiKey, int limit, int offset, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObject(apiKey, "app", uuid, PROXY);
+		return Commons.getObjectPage(apiKey, "collectionbundle", limit, offset, filter, PROXY);
 	}
 
 	/**
-	 * Create an application with a given name, belonging to collection
+	 * Return a list of collection bundles as model objects, paginated by limit and offset
 	 *
 	 * @param apiKey your API key
-	 * @param collection the collection the new app should be added to
-	 * @param name the new app name
-	 * @return a JSON object with the server response
+	 * @param limit the maximum number of collection bundles in the result, for pagination purpose
+	 * @param offset the starting collection bundle, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>tag__name</i> and
+	 * <i>app__name</i>
+	 * @return the collection bundles, with uuids in place of the uris of the objects they refer to
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject createApp(String apiKey, String collection, String name)
+	public static List<Bundle> getBundleModelList(String apiKey, int limit, int offset, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		JSONObject data = new JSONObject();
-		data.put("name", name);
-		data.put("collection", getObjectUrl("collection", collection));
-		return Commons.createObject(apiKey, "app", data, PROXY);
+		return Commons.getModelList(apiKey, "collectionbundle", limit, offset, filter, Bundle.class, PROXY);
 	}
 
 	/**
-	 * Delete an application, identified by uuid
+	 * Pass a list of collection bundles, paginated by limit and offset, to the visitor one at a time while the response is
+	 * being read, so that memory use doesn't grow with the page size
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the app uuid
-	 * @return a JSON object with the server response
+	 * @param limit the maximum number of collection bundles in the result, for pagination purpose
+	 * @param offset the starting collection bundle, for pagination purpose
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>tag__name</i> and
+	 * <i>app__name</i>
+	 * @param visitor receives the collection bundles, and can stop the listing
+	 * @return the number of collection bundles passed to the visitor
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject deleteApp(String apiKey, String uuid)
+	public static int visitBundleList(String apiKey, int limit, int offset, JSONObject filter, ObjectVisitor<Bundle> visitor)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.deleteObject(apiKey, "app", uuid, PROXY);
+		return Commons.visitObjectList(apiKey, "collectionbundle", limit, offset, filter, Bundle.class, visitor, PROXY);
 	}
-	//</editor-fold>
 
-	//<editor-fold desc="SDK versions management" defaultstate="collapsed">
 	/**
-	 * Returns the number of versions matching the filtering criterias.
+	 * Return a collection bundle as a model object, identified by uuid
 	 *
 	 * @param apiKey your API key
-	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
-	 * <i>sdk_version</i>
-	 * @return the number of versions matching the filtering criterias
+	 * @param uuid the collection bundle uuid
+	 * @return the collection bundle, with uuids in place of the uris of the objects it refers to
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
-	 * @throws NoSuchAlgorithmException if TLS 1.2 is not available
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static int getVersionsCount(String apiKey, JSONObject filter)
+	public static Bundle getBundleModel(String apiKey, String uuid)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.countObjectsInList(apiKey, "version", filter, PROXY);
+		return Commons.getModel(apiKey, "collectionbundle", uuid, Bundle.class, PROXY);
 	}
 
 	/**
-	 * Return a list of SDK versions, paginated by limit and offset
+	 * Return an iterator over all the collection bundles matching the filtering criterias, fetched
+	 * Settings.DEFAULT_PAGE_SIZE at a time while iterating
 	 *
 	 * @param apiKey your API key
-	 * @param limit the maximum number of items in the result, for pagination purpose
-	 * @param offset the starting item, for pagination purpose
-	 * @param filter filtering criterias for reducing the result set; available criterias are <i>sdk_name</i> and
-	 * <i>sdk_version</i>
-	 * @return a JSON array with the server response
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>tag__name</i> and
+	 * <i>app__name</i>
+	 * @return an iterator which must be closed if not consumed to the end
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONArray getVersionList(String apiKey, int limit, int offset, JSONObject filter)
+	public static PagedIterator streamBundles(String apiKey, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObjectList(apiKey, "version", limit, offset, filter, PROXY);
+		return streamBundles(apiKey, Settings.DEFAULT_PAGE_SIZE, filter);
 	}
 
 	/**
-	 * Return an SDK Version, identified by uuid
+	 * Return an iterator over all the collection bundles matching the filtering criterias, fetched
+	 * pageSize at a time while iterating
 	 *
 	 * @param apiKey your API key
-	 * @param uuid the version uuid
-	 * @return a JSON object with the server response
+	 * @param pageSize the number of collection bundles fetched with each request
+	 * @param filter filtering criterias for reducing the result set; available criterias are <i>tag__name</i> and
+	 * <i>app__name</i>
+	 * @return an iterator which must be closed if not consumed to the end
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONObject getVersion(String apiKey, String uuid)
+	public static PagedIterator streamBundles(String apiKey, int pageSize, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObject(apiKey, "version", uuid, PROXY);
+		return PagedIterator.open(apiKey, "collectionbundle", pageSize, filter, PROXY);
 	}
-	//</editor-fold>
 
-	//<editor-fold desc="Collection bundles management" defaultstate="collapsed">
 	/**
-	 * Returns the number of bundles matching the filtering criterias.
+	 * Return all the collection bundles matching the filtering criterias, fetching Settings.DEFAULT_FETCH_PARALLELISM
+	 * pages of Settings.DEFAULT_PAGE_SIZE collection bundles at a time
 	 *
 	 * @param apiKey your API key
 	 * @param filter filtering criterias for reducing the result set; available criterias are <i>tag__name</i> and
 	 * <i>app__name</i>
-	 * @return the number of bundles matching the filtering criterias
+	 * @return a JSON array with all the collection bundles, in the same order as the paginated list
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
-	 * @throws NoSuchAlgorithmException if TLS 1.2 is not available
+	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static int getBundlesCount(String apiKey, JSONObject filter)
+	public static JSONArray getAllBundles(String apiKey, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.countObjectsInList(apiKey, "collectionbundle", filter, PROXY);
+		return getAllBundles(apiKey, Settings.DEFAULT_PAGE_SIZE, Settings.DEFAULT_FETCH_PARALLELISM, filter);
 	}
 
 	/**
-	 * Return a list of bundles, paginated by limit and offset
+	 * Return all the collection bundles matching the filtering criterias, fetching up to parallelism pages at a time
 	 *
 	 * @param apiKey your API key
-	 * @param limit the maximum number of items in the result, for pagination purpose
-	 * @param offset the starting item, for pagination purpose
+	 * @param pageSize the number of collection bundles fetched with each request
+	 * @param parallelism the maximum number of concurrent requests
 	 * @param filter filtering criterias for reducing the result set; available criterias are <i>tag__name</i> and
 	 * <i>app__name</i>
-	 * @return a JSON array with the server response
+	 * @return a JSON array with all the collection bundles, in the same order as the paginated list
 	 * @throws CatchoomException if the parameters are incorrect or the server response is not valid
 	 * @throws IOException if something goes wrong in the interaction with the server
 	 * @throws java.security.NoSuchAlgorithmException if TLS 1.2 is not available
 	 */
-	public static JSONArray getBundleList(String apiKey, int limit, int offset, JSONObject filter)
+	public static JSONArray getAllBundles(String apiKey, int pageSize, int parallelism, JSONObject filter)
 			throws CatchoomException, IOException, NoSuchAlgorithmException {
-		return Commons.getObjectList(apiKey, "collectionbundle", limit, offset, filter, PROXY);
+		return ParallelListFetcher.fetchAll(apiKey, "collectionbundle", pageSize, parallelism, filter, PROXY);
 	}
 
 	/**
@@ -0,0 +1,487 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.model.App;
+import com.noxwizard.jcraftar.model.Bundle;
+import com.noxwizard.jcraftar.model.Collection;
+import com.noxwizard.jcraftar.model.Image;
+import com.noxwizard.jcraftar.model.Item;
+import com.noxwizard.jcraftar.model.ManagementObject;
+import com.noxwizard.jcraftar.model.Media;
+import com.noxwizard.jcraftar.model.Tag;
+import com.noxwizard.jcraftar.model.Token;
+import com.noxwizard.jcraftar.model.Version;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Reads Management API responses into model objects in a single pass over the body. References to other objects are
+ * turned into uuids while their uri is read: only the uuid itself is allocated, never the uri or its parts. Free-form
+ * values nested in the objects, such as the AR content of items, are built as JSON objects and arrays.
+ *
+ * @author Stefano Zanini
+ */
+class ModelParser {
+
+	//The attributes holding the uri of another object, or a list of them
+	private static final String[] URI_KEYS = {"collection", "item", "version", "app", "tag"};
+	private static final String[] URI_LIST_KEYS = {"collections", "tags"};
+	private static final String RESOURCE_URI = "resource_uri";
+	//Keys are compared against these before being allocated
+	private static final String[] KNOWN_KEYS = {"uuid", "name", "collection", "item", "version", "app", "tag",
+		"collections", "tags", RESOURCE_URI, "url", "custom", "trackable", "content", "file", "mimetype", "meta", "offline",
+		"token", "objects", "error", "message", "total_count", "limit", "offset", "next", "previous"};
+	//Marks a value which is read but not kept
+	private static final Object SKIPPED = new Object();
+
+	private final Reader reader;
+	private final Consumer consumer;
+	private int peeked = -2;
+	private char[] scratch = new char[128];
+	private int length;
+
+	private ModelParser(Reader reader, Consumer consumer) {
+		this.reader = reader;
+		this.consumer = consumer;
+	}
+
+	/**
+	 * Receives the objects of a list as soon as each one is parsed, instead of having them collected
+	 */
+	interface Consumer {
+
+		/**
+		 * @return false to stop parsing
+		 */
+		boolean accept(ManagementObject object);
+	}
+
+	/**
+	 * The content of a response: a single object, or a list of objects with its meta, or an error
+	 */
+	static class Response {
+
+		ManagementObject object;
+		List<ManagementObject> objects;
+		JSONObject meta;
+		JSONObject error;
+		//Whether the body has an objects list, even when its elements went to the consumer
+		boolean listed;
+		//The objects passed to the consumer, and whether it stopped the parsing
+		int consumed;
+		boolean stopped;
+	}
+
+	/**
+	 * Parses a response whose objects, either the response itself or the elements of its objects list, are of the given
+	 * type
+	 *
+	 * @throws JSONException if the body is not valid JSON
+	 */
+	static Response parse(Reader reader, String objectType) throws IOException {
+		return new ModelParser(reader, null).parseResponse(objectType);
+	}
+
+	/**
+	 * Parses a list response, passing each of its objects to the consumer as soon as it is read. The objects are not
+	 * kept, so the memory used doesn't depend on the size of the list. Parsing ends early, leaving the rest of the body
+	 * unread, if the consumer asks to stop.
+	 *
+	 * @throws JSONException if the body is not valid JSON
+	 */
+	static Response parse(Reader reader, String objectType, Consumer consumer) throws IOException {
+		return new ModelParser(reader, consumer).parseResponse(objectType);
+	}
+
+	private Response parseResponse(String objectType) throws IOException {
+		Response response = new Response();
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		expect('{');
+		if (!consume('}')) {
+			do {
+				String key = readKey();
+				expect(':');
+				int next = peek();
+				if ("objects".equals(key) && next == '[' && consumer != null) {
+					response.listed = true;
+					consumeModels(objectType, response);
+					if (response.stopped) {
+						return response;
+					}
+				} else if ("objects".equals(key) && next == '[') {
+					response.listed = true;
+					response.objects = parseModels(objectType);
+				} else if ("meta".equals(key) && next == '{') {
+					response.meta = parseJSONObject();
+				} else if ("error".equals(key)) {
+					Object error = parseValue();
+					response.error = error instanceof JSONObject
+							? (JSONObject) error
+							: new JSONObject().put("message", String.valueOf(error));
+				} else {
+					putAttribute(attributes, key);
+				}
+			} while (consume(','));
+			expect('}');
+		}
+		if (response.objects == null && response.error == null && consumer == null) {
+			response.object = create(objectType, attributes);
+		}
+		return response;
+	}
+
+	private List<ManagementObject> parseModels(String objectType) throws IOException {
+		List<ManagementObject> models = new ArrayList<>();
+		expect('[');
+		if (!consume(']')) {
+			do {
+				models.add(parseModel(objectType));
+			} while (consume(','));
+			expect(']');
+		}
+		return models;
+	}
+
+	private void consumeModels(String objectType, Response response) throws IOException {
+		expect('[');
+		if (!consume(']')) {
+			do {
+				response.consumed++;
+				if (!consumer.accept(parseModel(objectType))) {
+					response.stopped = true;
+					return;
+				}
+			} while (consume(','));
+			expect(']');
+		}
+	}
+
+	/**
+	 * Parses the next object of the body as a model object of the given type
+	 */
+	private ManagementObject parseModel(String objectType) throws IOException {
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		expect('{');
+		if (!consume('}')) {
+			do {
+				String key = readKey();
+				expect(':');
+				putAttribute(attributes, key);
+			} while (consume(','));
+			expect('}');
+		}
+		return create(objectType, attributes);
+	}
+
+	private void putAttribute(Map<String, Object> attributes, String key) throws IOException {
+		Object value;
+		int next = peek();
+		if (next == '"' && RESOURCE_URI.equals(key)) {
+			readString();
+			value = SKIPPED;
+		} else if (next == '"' && contains(URI_KEYS, key)) {
+			readString();
+			value = uuidFromUri();
+		} else if (next == '[' && contains(URI_LIST_KEYS, key)) {
+			value = parseUuidList();
+		} else {
+			value = parseValue();
+		}
+		if (value != SKIPPED) {
+			attributes.put(key, value);
+		}
+	}
+
+	private List<String> parseUuidList() throws IOException {
+		List<String> uuids = new ArrayList<>();
+		expect('[');
+		if (!consume(']')) {
+			do {
+				if (peek() == '"') {
+					readString();
+					uuids.add(uuidFromUri());
+				} else {
+					Object value = parseValue();
+					uuids.add(value == JSONObject.NULL ? null : value.toString());
+				}
+			} while (consume(','));
+			expect(']');
+		}
+		return uuids;
+	}
+
+	//Returns the last non empty segment of the uri in the scratch buffer, or the whole value if it is not a uri
+	private String uuidFromUri() {
+		int end = length;
+		while (end > 0 && scratch[end - 1] == '/') {
+			end--;
+		}
+		int start = end;
+		while (start > 0 && scratch[start - 1] != '/') {
+			start--;
+		}
+		if (start == 0 && end == length) {
+			return new String(scratch, 0, length);
+		}
+		return new String(scratch, start, end - start);
+	}
+
+	//<editor-fold desc="Generic JSON values" defaultstate="collapsed">
+	private Object parseValue() throws IOException {
+		int next = peek();
+		switch (next) {
+			case '{':
+				return parseJSONObject();
+			case '[':
+				return parseJSONArray();
+			case '"':
+				readString();
+				return new String(scratch, 0, length);
+			default:
+				return parseLiteral();
+		}
+	}
+
+	private JSONObject parseJSONObject() throws IOException {
+		JSONObject object = new JSONObject();
+		expect('{');
+		if (!consume('}')) {
+			do {
+				String key = readKey();
+				expect(':');
+				object.put(key, parseValue());
+			} while (consume(','));
+			expect('}');
+		}
+		return object;
+	}
+
+	private JSONArray parseJSONArray() throws IOException {
+		JSONArray array = new JSONArray();
+		expect('[');
+		if (!consume(']')) {
+			do {
+				array.put(parseValue());
+			} while (consume(','));
+			expect(']');
+		}
+		return array;
+	}
+
+	//Numbers, booleans and null
+	private Object parseLiteral() throws IOException {
+		length = 0;
+		int c = peek();
+		while (c >= 0 && c != ',' && c != '}' && c != ']' && c > ' ') {
+			append((char) read());
+			c = peek();
+		}
+		if (length == 0) {
+			throw error("Missing value");
+		}
+		Object value = JSONObject.stringToValue(new String(scratch, 0, length));
+		if (value instanceof String) {
+			throw error(String.format("Unexpected value: %s", value));
+		}
+		return value;
+	}
+
+	private String readKey() throws IOException {
+		if (peek() != '"') {
+			throw error("Expected a key");
+		}
+		readString();
+		for (String known : KNOWN_KEYS) {
+			if (matches(known)) {
+				return known;
+			}
+		}
+		return new String(scratch, 0, length);
+	}
+
+	//Reads a string into the scratch buffer, without the quotes and with the escapes resolved
+	private void readString() throws IOException {
+		expect('"');
+		length = 0;
+		while (true) {
+			int c = read();
+			if (c < 0 || c == '\n' || c == '\r') {
+				throw error("Unterminated string");
+			}
+			if (c == '"') {
+				return;
+			}
+			if (c == '\\') {
+				c = read();
+				switch (c) {
+					case 'b':
+						c = '\b';
+						break;
+					case 't':
+						c = '\t';
+						break;
+					case 'n':
+						c = '\n';
+						break;
+					case 'f':
+						c = '\f';
+						break;
+					case 'r':
+						c = '\r';
+						break;
+					case 'u':
+						int code = 0;
+						for (int i = 0; i < 4; i++) {
+							int digit = Character.digit(read(), 16);
+							if (digit < 0) {
+								throw error("Illegal escape");
+							}
+							code = (code << 4) | digit;
+						}
+						c = code;
+						break;
+					case '"':
+					case '\'':
+					case '\\':
+					case '/':
+						break;
+					default:
+						throw error("Illegal escape");
+				}
+			}
+			append((char) c);
+		}
+	}
+
+	private boolean matches(String known) {
+		if (known.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (known.charAt(i) != scratch[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void append(char c) {
+		if (length == scratch.length) {
+			char[] larger = new char[scratch.length * 2];
+			System.arraycopy(scratch, 0, larger, 0, length);
+			scratch = larger;
+		}
+		scratch[length++] = c;
+	}
+	//</editor-fold>
+
+	//<editor-fold desc="Reading" defaultstate="collapsed">
+	private int read() throws IOException {
+		if (peeked != -2) {
+			int c = peeked;
+			peeked = -2;
+			return c;
+		}
+		return reader.read();
+	}
+
+	//Returns the next character which is not whitespace, without consuming it
+	private int peek() throws IOException {
+		int c = read();
+		while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+			c = read();
+		}
+		peeked = c;
+		return c;
+	}
+
+	private boolean consume(char expected) throws IOException {
+		if (peek() == expected) {
+			peeked = -2;
+			return true;
+		}
+		return false;
+	}
+
+	private void expect(char expected) throws IOException {
+		if (!consume(expected)) {
+			throw error(String.format("Expected '%s'", expected));
+		}
+	}
+
+	private JSONException error(String message) throws IOException {
+		int c = peek();
+		return new JSONException(c < 0 ? message + " at the end of the response" : message + " before '" + (char) c + "'");
+	}
+	//</editor-fold>
+
+	//<editor-fold desc="Model objects" defaultstate="collapsed">
+	private static ManagementObject create(String objectType, Map<String, Object> attributes) {
+		switch (objectType) {
+			case "collection":
+				return new Collection(getString(attributes, "uuid"), getString(attributes, "name"),
+						getBoolean(attributes, "offline"), attributes);
+			case "item":
+				return new Item(getString(attributes, "uuid"), getString(attributes, "name"),
+						getString(attributes, "collection"), getString(attributes, "url"), getString(attributes, "custom"),
+						getBoolean(attributes, "trackable"), getList(attributes, "tags"), attributes);
+			case "image":
+				return new Image(getString(attributes, "uuid"), getString(attributes, "name"),
+						getString(attributes, "item"), getString(attributes, "file"), attributes);
+			case "token":
+				return new Token(getString(attributes, "token"), getString(attributes, "collection"),
+						getList(attributes, "tags"), attributes);
+			case "media":
+				return new Media(getString(attributes, "uuid"), getString(attributes, "name"),
+						getString(attributes, "file"), getString(attributes, "mimetype"), attributes);
+			case "tag":
+				return new Tag(getString(attributes, "uuid"), getString(attributes, "name"),
+						getString(attributes, "collection"), attributes);
+			case "app":
+				return new App(getString(attributes, "uuid"), getString(attributes, "name"),
+						getString(attributes, "collection"), attributes);
+			case "version":
+				return new Version(getString(attributes, "uuid"), attributes);
+			case "collectionbundle":
+				return new Bundle(getString(attributes, "uuid"), getString(attributes, "collection"),
+						getString(attributes, "app"), getString(attributes, "version"), getString(attributes, "tag"),
+						getString(attributes, "file"), attributes);
+			default:
+				throw new IllegalArgumentException(String.format("Wrong object_type: %s", objectType));
+		}
+	}
+
+	//Typed attributes are also left in the map, so that the model writes back the attributes as they were sent
+	private static String getString(Map<String, Object> attributes, String key) {
+		Object value = attributes.get(key);
+		//Unexpected types are only available untyped
+		return value instanceof String ? (String) value : null;
+	}
+
+	private static boolean getBoolean(Map<String, Object> attributes, String key) {
+		Object value = attributes.get(key);
+		return Boolean.TRUE.equals(value) || "true".equalsIgnoreCase(String.valueOf(value));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> getList(Map<String, Object> attributes, String key) {
+		Object value = attributes.get(key);
+		return value instanceof List ? (List<String>) value : null;
+	}
+	//</editor-fold>
+
+	private static boolean contains(String[] keys, String key) {
+		for (String k : keys) {
+			if (k.equals(key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,75 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.CacheStats;
+import com.noxwizard.jcraftar.model.ManagementObject;
+
+/**
+ * Keeps the objects returned by the Management getters, up to a maximum number evicting the least recently used, and
+ * for a maximum time. The cached models are immutable, so they are shared by all the callers. Entries are keyed by
+ * object type and uuid, which are unique across API keys; an entry fetched with a different API key counts as a miss,
+ * so that a key never sees what it couldn't fetch.
+ *
+ * @author Stefano Zanini
+ */
+class ObjectCache {
+
+	private final BoundedCache<String, CachedObject> entries;
+	//Incremented by every invalidation, so that fetches started before it don't store stale objects
+	private long generation;
+
+	ObjectCache(int maxEntries, long ttlMillis) {
+		this.entries = new BoundedCache<>(maxEntries, ttlMillis);
+	}
+
+	private static class CachedObject {
+
+		final String apiKey;
+		final ManagementObject object;
+
+		CachedObject(String apiKey, ManagementObject object) {
+			this.apiKey = apiKey;
+			this.object = object;
+		}
+	}
+
+	private static String key(String objectType, String uuid) {
+		return objectType + '/' + uuid;
+	}
+
+	/**
+	 * Returns the cached object, or null if it must be fetched
+	 */
+	synchronized ManagementObject get(String apiKey, String objectType, String uuid) {
+		CachedObject entry = entries.get(key(objectType, uuid));
+		if (entry == null || !entry.apiKey.equals(apiKey)) {
+			entries.miss();
+			return null;
+		}
+		entries.hit();
+		return entry.object;
+	}
+
+	/**
+	 * Returns the current generation, to be passed to {@link #put} along with the object fetched afterwards
+	 */
+	synchronized long getGeneration() {
+		return generation;
+	}
+
+	synchronized void put(String apiKey, String objectType, String uuid, ManagementObject object, long fetchGeneration) {
+		if (fetchGeneration != generation) {
+			//The object may have changed while it was being fetched
+			return;
+		}
+		entries.put(key(objectType, uuid), new CachedObject(apiKey, object));
+	}
+
+	synchronized void invalidate(String objectType, String uuid) {
+		generation++;
+		entries.invalidate(key(objectType, uuid));
+	}
+
+	synchronized CacheStats getStats() {
+		return entries.getStats();
+	}
+}
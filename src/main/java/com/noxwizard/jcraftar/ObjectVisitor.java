@@ -0,0 +1,20 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.model.ManagementObject;
+
+/**
+ * Receives the objects of a list one at a time, while the response is still being read
+ *
+ * @author Stefano Zanini
+ * @param <T> the type of the objects in the list
+ */
+public interface ObjectVisitor<T extends ManagementObject> {
+
+	/**
+	 * Called for each object of the list, in order. The object is not referenced by the library afterwards.
+	 *
+	 * @param object the object just read
+	 * @return true to go on with the next object, false to stop and discard the rest of the response
+	 */
+	boolean visit(T object);
+}
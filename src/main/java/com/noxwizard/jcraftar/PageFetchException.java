@@ -0,0 +1,15 @@
+package com.noxwizard.jcraftar;
+
+/**
+ * Thrown by list iterators, which can't throw checked exceptions, when a page can't be fetched. The cause is the
+ * original {@link CatchoomException}, {@link java.io.IOException} or
+ * {@link java.security.NoSuchAlgorithmException}.
+ *
+ * @author Stefano Zanini
+ */
+public class PageFetchException extends RuntimeException {
+
+    public PageFetchException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -0,0 +1,128 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.Page;
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Iterates over all the objects of a list, fetching one page at a time. While a page is being consumed the next one is
+ * fetched in the background, so at most two pages are held in memory however long the list is. Since iterators can't
+ * throw checked exceptions, errors fetching the following pages are thrown as {@link PageFetchException}.
+ * Closing the iterator before the end cancels the pending fetch.
+ *
+ * @author Stefano Zanini
+ */
+public class PagedIterator implements Iterator<JSONObject>, Closeable {
+
+	private static final ExecutorService PREFETCH = Executors.newCachedThreadPool(new ThreadFactory() {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "jcraftar-prefetch-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private final String apiKey;
+	private final String objectType;
+	private final int pageSize;
+	private final JSONObject filter;
+	private final Proxy proxy;
+	private JSONArray page;
+	private int index;
+	private Future<Page> pending;
+
+	private PagedIterator(String apiKey, String objectType, int pageSize, JSONObject filter, Proxy proxy) {
+		this.apiKey = apiKey;
+		this.objectType = objectType;
+		this.pageSize = pageSize;
+		this.filter = filter;
+		this.proxy = proxy;
+	}
+
+	/**
+	 * Fetches the first page right away, so that wrong parameters are reported by the caller, and starts fetching the
+	 * second one
+	 */
+	static PagedIterator open(String apiKey, String objectType, int pageSize, JSONObject filter, Proxy proxy)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		if (pageSize < 1) {
+			CatchoomException ex = new CatchoomException(String.format("Wrong page size: %s", pageSize));
+			throw ex;
+		}
+		PagedIterator iterator = new PagedIterator(apiKey, objectType, pageSize, filter, proxy);
+		iterator.setPage(Commons.getObjectPage(apiKey, objectType, pageSize, 0, filter, proxy));
+		return iterator;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (page == null || index >= page.length()) {
+			if (pending == null) {
+				return false;
+			}
+			try {
+				setPage(pending.get());
+			} catch (ExecutionException e) {
+				pending = null;
+				throw new PageFetchException(e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new PageFetchException(e);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public JSONObject next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return page.getJSONObject(index++);
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void close() {
+		if (pending != null) {
+			pending.cancel(true);
+			pending = null;
+		}
+		page = null;
+	}
+
+	//Replaces the current page, releasing the previous one, and starts fetching the next one if there is any
+	private void setPage(Page response) {
+		page = response.getObjects();
+		index = 0;
+		pending = page.length() > 0 && response.hasNext() ? fetch(response.getNextOffset()) : null;
+	}
+
+	private Future<Page> fetch(final int pageOffset) {
+		return PREFETCH.submit(new Callable<Page>() {
+			@Override
+			public Page call() throws Exception {
+				return Commons.getObjectPage(apiKey, objectType, pageSize, pageOffset, filter, proxy);
+			}
+		});
+	}
+}
@@ -0,0 +1,124 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.Page;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Fetches a whole list with concurrent page requests. The first page tells the total number of objects and the page
+ * size actually granted by the server; the remaining offsets are then split into pages fetched by up to parallelism
+ * workers of a shared pool, each taking the next page in turn, and the pages are joined in offset order.
+ *
+ * @author Stefano Zanini
+ */
+class ParallelListFetcher {
+
+	private static final ExecutorService FETCH = Executors.newCachedThreadPool(new ThreadFactory() {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "jcraftar-fetch-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private ParallelListFetcher() {
+	}
+
+	static JSONArray fetchAll(final String apiKey, final String objectType, int pageSize, int parallelism,
+			final JSONObject filter, final Proxy proxy) throws CatchoomException, IOException, NoSuchAlgorithmException {
+		if (pageSize < 1) {
+			CatchoomException ex = new CatchoomException(String.format("Wrong page size: %s", pageSize));
+			throw ex;
+		}
+		if (parallelism < 1) {
+			CatchoomException ex = new CatchoomException(String.format("Wrong parallelism: %s", parallelism));
+			throw ex;
+		}
+		Page first = Commons.getObjectPage(apiKey, objectType, pageSize, 0, filter, proxy);
+		JSONArray objects = first.getObjects();
+		int totalCount = first.getTotalCount();
+		//The server may grant fewer objects per page than asked for
+		final int limit = objects.length() > 0 ? objects.length() : pageSize;
+		if (objects.length() == 0 || objects.length() >= totalCount) {
+			return objects;
+		}
+
+		final int firstOffset = objects.length();
+		final int pageCount = (totalCount - firstOffset + limit - 1) / limit;
+		final JSONArray[] pages = new JSONArray[pageCount];
+		final AtomicInteger next = new AtomicInteger();
+		CompletionService<Void> completionService = new ExecutorCompletionService<>(FETCH);
+		List<Future<Void>> workers = new ArrayList<>();
+		try {
+			for (int i = 0; i < Math.min(parallelism, pageCount); i++) {
+				workers.add(completionService.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						int page;
+						while ((page = next.getAndIncrement()) < pageCount) {
+							pages[page] = Commons.getObjectList(apiKey, objectType, limit, firstOffset + page * limit,
+									filter, proxy);
+						}
+						return null;
+					}
+				}));
+			}
+			//Joins the workers as they finish, so that a failure is seen without waiting for the others
+			for (int i = 0; i < workers.size(); i++) {
+				join(completionService);
+			}
+		} finally {
+			//Stops the remaining requests if one of them failed
+			next.set(pageCount);
+			for (Future<Void> worker : workers) {
+				worker.cancel(true);
+			}
+		}
+		//The workers' results are visible once their futures have completed
+		for (JSONArray page : pages) {
+			for (int i = 0; i < page.length(); i++) {
+				objects.put(page.get(i));
+			}
+		}
+		return objects;
+	}
+
+	//Rethrows the exception of a failed page as it would have been thrown by a sequential request
+	private static void join(CompletionService<Void> completionService)
+			throws CatchoomException, IOException, NoSuchAlgorithmException {
+		try {
+			completionService.take().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while fetching the list", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CatchoomException) {
+				throw (CatchoomException) cause;
+			} else if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof NoSuchAlgorithmException) {
+				throw (NoSuchAlgorithmException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+}
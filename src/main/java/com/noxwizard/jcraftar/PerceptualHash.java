@@ -0,0 +1,101 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.ScalingQuality;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * Computes difference hashes (dHash) of images: the image is reduced to 9x8 gray pixels, and each of the 64 bits tells
+ * whether a pixel is brighter than its right neighbour. Re-encoding, small shifts in exposure and sensor noise leave
+ * most bits unchanged, so similar images have hashes at a small Hamming distance.
+ *
+ * @author Stefano Zanini
+ */
+class PerceptualHash {
+
+	private static final int WIDTH = 9;
+	private static final int HEIGHT = 8;
+	//The decoder skips pixels as long as this many are left on the shortest side, for the area average to work on
+	private static final int MIN_DECODED_SIZE = 64;
+
+	private PerceptualHash() {
+	}
+
+	/**
+	 * Returns the hash of an encoded image, decoding it at the lowest resolution needed
+	 */
+	static long dHash(byte[] image) throws IOException {
+		return dHash(thumbnail(image, WIDTH, HEIGHT));
+	}
+
+	static long dHash(BufferedImage image) {
+		return dHash(thumbnail(image, WIDTH, HEIGHT));
+	}
+
+	private static long dHash(int[] gray) {
+		long hash = 0;
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH - 1; x++) {
+				hash = (hash << 1) | (gray[y * WIDTH + x] > gray[y * WIDTH + x + 1] ? 1 : 0);
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the gray levels of a tiny version of an encoded image, row by row, decoding it at the lowest resolution
+	 * needed
+	 */
+	static int[] thumbnail(byte[] image, int width, int height) throws IOException {
+		try (ImageInputStream iis = new MemoryCacheImageInputStream(new ByteArrayInputStream(image))) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+			if (!readers.hasNext()) {
+				throw new IOException("Unsupported image format");
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(iis, true, true);
+				int subsampling = Math.max(1, Math.min(reader.getWidth(0), reader.getHeight(0)) / MIN_DECODED_SIZE);
+				ImageReadParam param = reader.getDefaultReadParam();
+				if (subsampling > 1) {
+					param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				}
+				return thumbnail(reader.read(0, param), width, height);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Returns the gray levels of a tiny version of the image, row by row
+	 */
+	static int[] thumbnail(BufferedImage image, int width, int height) {
+		BufferedImage small = Downscaler.resize(image, width, height, ScalingQuality.QUALITY);
+		byte[] pixels = ((DataBufferByte) small.getRaster().getDataBuffer()).getData();
+		int[] gray = new int[width * height];
+		if (small.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+			for (int i = 0; i < gray.length; i++) {
+				gray[i] = pixels[i] & 0xff;
+			}
+		} else {
+			//Same plain average as Grayscale, so that color and gray queries of the same image hash alike
+			for (int i = 0; i < gray.length; i++) {
+				gray[i] = ((pixels[i * 3] & 0xff) + (pixels[i * 3 + 1] & 0xff) + (pixels[i * 3 + 2] & 0xff)) / 3;
+			}
+		}
+		return gray;
+	}
+
+	static int distance(long hash1, long hash2) {
+		return Long.bitCount(hash1 ^ hash2);
+	}
+}
@@ -0,0 +1,176 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.EndpointClass;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+/**
+ * Keeps the requests within the API quotas with a token bucket for each API key or collection token, with separate
+ * rates for the Management and the Recognition APIs. A bucket holds up to burst permits and gets rate permits per
+ * second; a request takes a permit, waiting for one if the bucket is empty. Buckets are lock-free, so threads sharing
+ * a key never block each other while taking permits. Install it with {@link HttpTransport#setRateLimiter(RateLimiter)}
+ * to throttle all the calls of this library, or use it directly to throttle other work against the same quotas.
+ *
+ * @author Stefano Zanini
+ */
+public class RateLimiter {
+
+	//Completes the asynchronous acquisitions once their permit is due
+	private static final ScheduledExecutorService SCHEDULER = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "jcraftar-rate-limiter");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private final double managementRate;
+	private final int managementBurst;
+	private final double recognitionRate;
+	private final int recognitionBurst;
+	private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+	/**
+	 * @param managementRate the Management requests per second allowed for each API key
+	 * @param managementBurst the Management requests allowed at once, for each API key, after a pause
+	 * @param recognitionRate the Recognition requests per second allowed for each collection token
+	 * @param recognitionBurst the Recognition requests allowed at once, for each collection token, after a pause
+	 */
+	public RateLimiter(double managementRate, int managementBurst, double recognitionRate, int recognitionBurst) {
+		if (!(managementRate > 0) || !(recognitionRate > 0) || managementBurst < 1 || recognitionBurst < 1) {
+			throw new IllegalArgumentException("Rates and bursts must be positive");
+		}
+		this.managementRate = managementRate;
+		this.managementBurst = managementBurst;
+		this.recognitionRate = recognitionRate;
+		this.recognitionBurst = recognitionBurst;
+	}
+
+	/**
+	 * Takes a permit, waiting until one is available
+	 *
+	 * @param key the API key or collection token
+	 * @param endpointClass the API the permit is for
+	 * @throws InterruptedException if the calling thread is interrupted while waiting; the permit is lost
+	 */
+	public void acquire(String key, EndpointClass endpointClass) throws InterruptedException {
+		long wait = getBucket(key, endpointClass).reserve();
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+	/**
+	 * Takes a permit only if one is available right away
+	 *
+	 * @param key the API key or collection token
+	 * @param endpointClass the API the permit is for
+	 * @return whether the permit has been taken
+	 */
+	public boolean tryAcquire(String key, EndpointClass endpointClass) {
+		return getBucket(key, endpointClass).tryTake();
+	}
+
+	/**
+	 * Takes a permit without blocking the calling thread
+	 *
+	 * @param key the API key or collection token
+	 * @param endpointClass the API the permit is for
+	 * @return a future which completes once the permit is due
+	 */
+	public Future<Void> acquireAsync(String key, EndpointClass endpointClass) {
+		return acquireAsync(key, endpointClass, null);
+	}
+
+	/**
+	 * Takes a permit without blocking the calling thread
+	 *
+	 * @param key the API key or collection token
+	 * @param endpointClass the API the permit is for
+	 * @param callback notified once the permit is due, on the calling thread if it is due right away; may be null
+	 * @return a future which completes once the permit is due
+	 */
+	public Future<Void> acquireAsync(String key, EndpointClass endpointClass, FutureCallback<Void> callback) {
+		final BasicFuture<Void> future = new BasicFuture<>(callback);
+		long wait = getBucket(key, endpointClass).reserve();
+		if (wait <= 0) {
+			future.completed(null);
+		} else {
+			SCHEDULER.schedule(new Runnable() {
+				@Override
+				public void run() {
+					future.completed(null);
+				}
+			}, wait, TimeUnit.NANOSECONDS);
+		}
+		return future;
+	}
+
+	private TokenBucket getBucket(String key, EndpointClass endpointClass) {
+		String bucketKey = endpointClass.name() + '/' + key;
+		TokenBucket bucket = buckets.get(bucketKey);
+		if (bucket == null) {
+			boolean management = endpointClass == EndpointClass.MANAGEMENT;
+			TokenBucket created = management
+					? new TokenBucket(managementRate, managementBurst)
+					: new TokenBucket(recognitionRate, recognitionBurst);
+			bucket = buckets.putIfAbsent(bucketKey, created);
+			if (bucket == null) {
+				bucket = created;
+			}
+		}
+		return bucket;
+	}
+
+	/**
+	 * A token bucket whose whole state is a single timestamp: the time at which the permits already taken will have
+	 * been paid back. The bucket is full when that time is in the past, and each permit moves it forward by one
+	 * interval; a permit is available as long as the time is less than burst intervals ahead.
+	 */
+	private static class TokenBucket {
+
+		private final long intervalNanos;
+		private final long toleranceNanos;
+		private final AtomicLong paidUntil = new AtomicLong(System.nanoTime());
+
+		TokenBucket(double rate, int burst) {
+			this.intervalNanos = Math.max(1, (long) (1e9 / rate));
+			this.toleranceNanos = intervalNanos * (burst - 1);
+		}
+
+		boolean tryTake() {
+			while (true) {
+				long current = paidUntil.get();
+				long now = System.nanoTime();
+				long start = current - now > 0 ? current : now;
+				if (start - now > toleranceNanos) {
+					return false;
+				}
+				if (paidUntil.compareAndSet(current, start + intervalNanos)) {
+					return true;
+				}
+			}
+		}
+
+		//Takes a permit even if it isn't available yet, returning how long to wait before using it
+		long reserve() {
+			while (true) {
+				long current = paidUntil.get();
+				long now = System.nanoTime();
+				long start = current - now > 0 ? current : now;
+				if (paidUntil.compareAndSet(current, start + intervalNanos)) {
+					return start - now - toleranceNanos;
+				}
+			}
+		}
+	}
+}
@@ -1,29 +1,29 @@
 package com.noxwizard.jcraftar;
 
+import com.noxwizard.jcraftar.datapassing.CacheStats;
+import com.noxwizard.jcraftar.datapassing.ConcurrencyStats;
+import com.noxwizard.jcraftar.datapassing.EndpointClass;
+import com.noxwizard.jcraftar.datapassing.HedgingStats;
 import com.noxwizard.jcraftar.datapassing.SearchParameters;
 import com.noxwizard.jcraftar.datapassing.SyncParameters;
-import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.image.BufferedImage;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import javax.imageio.ImageIO;
+import java.util.concurrent.Future;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.BasicNameValuePair;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -44,6 +44,175 @@ public class Recognition {
 		PROXY = null;
 	}
 
+	//Whether the search methods throw the failures of the request rather than printing them
+	private static volatile boolean THROW_SEARCH_FAILURES = false;
+
+	/**
+	 * Makes the search methods throw the failures of the request, such as a {@link CircuitOpenException} or the last
+	 * IOException once the retries are over, instead of printing them to the standard error and returning an empty JSON
+	 * object, which can't be told apart from a search without matches. Failures other than IOExceptions, such as an
+	 * invalid response, are thrown wrapped in an IOException.
+	 *
+	 * @param thrown true to throw the failures, false, the default, to print them
+	 */
+	public static void setThrowingSearchFailures(boolean thrown) {
+		THROW_SEARCH_FAILURES = thrown;
+	}
+
+	public static boolean isThrowingSearchFailures() {
+		return THROW_SEARCH_FAILURES;
+	}
+
+	//Cache of search results by perceptual hash of the query, null when disabled
+	private static volatile RecognitionCache SEARCH_CACHE = null;
+
+	/**
+	 * Keeps search results, so that queries close enough to a previous one with the same token and parameters are
+	 * answered without a request. Queries are compared by a 64 bit perceptual hash of the prepared image: two
+	 * re-encodings of the same picture are usually within 2 bits, consecutive frames of a still scene within 6, while
+	 * different pictures differ by about 32. Results are evicted when more than maxEntries are cached, least recently
+	 * used first, and expire after ttlMillis. Lookups are indexed for distances up to 7 bits; larger distances compare
+	 * the query with every result of the same token and parameters. Replaces the current cache, if any.
+	 * <p>
+	 * The cache serves the search and searchAsync methods and batch searches. Search pipelines, federated searches and
+	 * frame recognizers always send their requests; frame recognizers skip near-duplicate frames on their own.
+	 *
+	 * @param maxEntries the maximum number of cached results
+	 * @param ttlMillis how long a result is cached, in milliseconds
+	 * @param maxDistance the maximum number of different hash bits for a query to reuse a result, from 0 to 64
+	 * @throws CatchoomException if the parameters are incorrect
+	 */
+	public static void enableSearchCache(int maxEntries, long ttlMillis, int maxDistance) throws CatchoomException {
+		BoundedCache.validate(maxEntries, ttlMillis);
+		if (maxDistance < 0 || maxDistance > 64) {
+			CatchoomException ex = new CatchoomException(String.format("Wrong hash distance: %s", maxDistance));
+			throw ex;
+		}
+		SEARCH_CACHE = new RecognitionCache(maxEntries, ttlMillis, maxDistance);
+	}
+
+	/**
+	 * Drops the search cache, if any; every search will reach the server again.
+	 */
+	public static void disableSearchCache() {
+		SEARCH_CACHE = null;
+	}
+
+	/**
+	 * Returns the counters of the cache enabled with {@link #enableSearchCache(int, long, int)}.
+	 *
+	 * @return the cache statistics, or null if the cache is disabled
+	 */
+	public static CacheStats getSearchCacheStats() {
+		RecognitionCache cache = SEARCH_CACHE;
+		return cache != null ? cache.getStats() : null;
+	}
+
+	/**
+	 * Returns the number of encoded query images (files, bytes, buffers and streams) prepared for a search so far
+	 *
+	 * @return the number of encoded query images
+	 */
+	public static long getPreparedImagesCount() {
+		return ImagePreprocessor.getPreparedCount();
+	}
+
+	/**
+	 * Returns how many of the encoded query images were sent as they were, without being decoded and re-encoded,
+	 * because they were already JPEGs with the required size and colors
+	 *
+	 * @return the number of query images sent unchanged
+	 */
+	public static long getPassthroughCount() {
+		return ImagePreprocessor.getPassedThroughCount();
+	}
+
+	//Duplicates slow searches, null when disabled
+	private static volatile Hedging HEDGING = null;
+
+	/**
+	 * Makes the synchronous searches send a duplicate request when the server has not answered within the given
+	 * percentile of the recent latencies; the first answer is kept and the other request is cancelled. Duplicates are
+	 * capped to budgetPercent of the searches. Replaces the current hedging counters, if any.
+	 *
+	 * @param percentile the percentile of the latencies after which a duplicate is sent, from 0 to 100, such as 95
+	 * @param budgetPercent the maximum percentage of searches which can send a duplicate, such as 5
+	 * @throws CatchoomException if the parameters are incorrect
+	 */
+	public static void enableHedging(double percentile, double budgetPercent) throws CatchoomException {
+		if (!(percentile > 0 && percentile <= 100)) {
+			CatchoomException ex = new CatchoomException(String.format("Wrong percentile: %s", percentile));
+			throw ex;
+		}
+		if (!(budgetPercent > 0 && budgetPercent <= 100)) {
+			CatchoomException ex = new CatchoomException(String.format("Wrong hedging budget: %s", budgetPercent));
+			throw ex;
+		}
+		HEDGING = new Hedging(percentile, budgetPercent);
+	}
+
+	/**
+	 * Stops sending duplicate requests
+	 */
+	public static void disableHedging() {
+		HEDGING = null;
+	}
+
+	/**
+	 * Returns the counters of the hedging enabled with {@link #enableHedging(double, double)}.
+	 *
+	 * @return the hedging statistics, or null if hedging is disabled
+	 */
+	public static HedgingStats getHedgingStats() {
+		Hedging hedging = HEDGING;
+		return hedging != null ? hedging.getStats() : null;
+	}
+
+	//Adaptive limit of the searches in flight, null when disabled
+	private static volatile ConcurrencyLimiter CONCURRENCY_LIMITER = null;
+
+	/**
+	 * Limits how many searches, synchronous and asynchronous, are in flight at once, the others waiting in line. The
+	 * limit starts from initialLimit and adapts to the round trip times: it grows while they stay close to the lowest
+	 * recently measured, and shrinks when they rise, which means that the server is queueing the searches, or when a
+	 * search times out or is answered with 429 or a 5xx status. Only the requests themselves are timed, not the waits
+	 * for the rate limiter or between retries. Replaces the current limit, if any; searches already waiting
+	 * for the previous one are let through by it.
+	 *
+	 * @param initialLimit the number of searches allowed in flight at first
+	 * @param maxLimit the highest number of searches ever allowed in flight
+	 * @throws CatchoomException if the parameters are incorrect
+	 */
+	public static void enableAdaptiveConcurrency(int initialLimit, int maxLimit) throws CatchoomException {
+		if (initialLimit < 1) {
+			CatchoomException ex = new CatchoomException(String.format("Wrong initial limit: %s", initialLimit));
+			throw ex;
+		}
+		if (maxLimit < initialLimit) {
+			CatchoomException ex = new CatchoomException(String.format("Wrong maximum limit: %s", maxLimit));
+			throw ex;
+		}
+		CONCURRENCY_LIMITER = new ConcurrencyLimiter(initialLimit, maxLimit);
+	}
+
+	/**
+	 * Stops limiting the searches in flight
+	 */
+	public static void disableAdaptiveConcurrency() {
+		CONCURRENCY_LIMITER = null;
+	}
+
+	/**
+	 * Returns the current limit, the queueing time and the round trip times of the searches limited with
+	 * {@link #enableAdaptiveConcurrency(int, int)}.
+	 *
+	 * @return the concurrency statistics, or null if the limit is disabled
+	 */
+	public static ConcurrencyStats getConcurrencyStats() {
+		ConcurrencyLimiter limiter = CONCURRENCY_LIMITER;
+		return limiter != null ? limiter.getStats() : null;
+	}
+
 	/**
 	 * Performs the search request and returns the JSON Catchoom answers with
 	 *
@@ -66,59 +235,238 @@ public class Recognition {
 	 * @throws IOException if the file can't be found
 	 */
 	public static JSONObject search(String token, String fileName, SearchParameters optionals) throws IOException {
-		//Since the server won't accept an InputStream, the original content of the file has to be stored so that changes 
-		//can be reverted later on
-		byte[] originalData = saveFileContent(fileName);
+		return searchOrReport(token, prepareImageBytes(fileName, optionals), optionals);
+	}
+
+	/**
+	 * Performs the search request and returns the JSON Catchoom answers with
+	 *
+	 * @param token Catchoom collection token
+	 * @param image the encoded image to search (JPEG, PNG or any other format readable by ImageIO)
+	 * @return a JSON object containing the results of the search
+	 * @throws IOException if the image can't be decoded
+	 */
+	public static JSONObject search(String token, byte[] image) throws IOException {
+		return search(token, image, new SearchParameters());
+	}
+
+	/**
+	 * Performs the search request and returns the JSON Catchoom answers with
+	 *
+	 * @param token Catchoom collection token
+	 * @param image the encoded image to search (JPEG, PNG or any other format readable by ImageIO)
+	 * @param optionals optional parameters for Catchoom search
+	 * @return a JSON object containing the results of the search
+	 * @throws IOException if the image can't be decoded
+	 */
+	public static JSONObject search(String token, byte[] image, SearchParameters optionals) throws IOException {
+		return searchOrReport(token, ImagePreprocessor.prepare(image, optionals), optionals);
+	}
+
+	/**
+	 * Performs the search request and returns the JSON Catchoom answers with
+	 *
+	 * @param token Catchoom collection token
+	 * @param image the encoded image to search, between its position and its limit; the buffer is not modified
+	 * @return a JSON object containing the results of the search
+	 * @throws IOException if the image can't be decoded
+	 */
+	public static JSONObject search(String token, ByteBuffer image) throws IOException {
+		return search(token, image, new SearchParameters());
+	}
+
+	/**
+	 * Performs the search request and returns the JSON Catchoom answers with
+	 *
+	 * @param token Catchoom collection token
+	 * @param image the encoded image to search, between its position and its limit; the buffer is not modified
+	 * @param optionals optional parameters for Catchoom search
+	 * @return a JSON object containing the results of the search
+	 * @throws IOException if the image can't be decoded
+	 */
+	public static JSONObject search(String token, ByteBuffer image, SearchParameters optionals) throws IOException {
+		return searchOrReport(token, ImagePreprocessor.prepare(image, optionals), optionals);
+	}
 
-		File image = prepareImage(fileName, optionals.isColor(), optionals.getMinSize());
+	/**
+	 * Performs the search request and returns the JSON Catchoom answers with
+	 *
+	 * @param token Catchoom collection token
+	 * @param image a stream with the encoded image to search; it is not closed
+	 * @return a JSON object containing the results of the search
+	 * @throws IOException if the stream can't be read or the image can't be decoded
+	 */
+	public static JSONObject search(String token, InputStream image) throws IOException {
+		return search(token, image, new SearchParameters());
+	}
+
+	/**
+	 * Performs the search request and returns the JSON Catchoom answers with
+	 *
+	 * @param token Catchoom collection token
+	 * @param image a stream with the encoded image to search; it is not closed
+	 * @param optionals optional parameters for Catchoom search
+	 * @return a JSON object containing the results of the search
+	 * @throws IOException if the stream can't be read or the image can't be decoded
+	 */
+	public static JSONObject search(String token, InputStream image, SearchParameters optionals) throws IOException {
+		return searchOrReport(token, ImagePreprocessor.prepare(image, optionals), optionals);
+	}
+
+	/**
+	 * Performs the search request and returns the JSON Catchoom answers with
+	 *
+	 * @param token Catchoom collection token
+	 * @param image the image to search; it is not modified
+	 * @return a JSON object containing the results of the search
+	 * @throws IOException if the image can't be encoded
+	 */
+	public static JSONObject search(String token, BufferedImage image) throws IOException {
+		return search(token, image, new SearchParameters());
+	}
+
+	/**
+	 * Performs the search request and returns the JSON Catchoom answers with
+	 *
+	 * @param token Catchoom collection token
+	 * @param image the image to search; it is not modified
+	 * @param optionals optional parameters for Catchoom search
+	 * @return a JSON object containing the results of the search
+	 * @throws IOException if the image can't be encoded
+	 */
+	public static JSONObject search(String token, BufferedImage image, SearchParameters optionals) throws IOException {
+		return searchOrReport(token, ImagePreprocessor.prepare(image, optionals), optionals);
+	}
+
+	//Performs the search request for an already prepared image, printing any failure and returning an empty result,
+	//unless the failures are to be thrown
+	private static JSONObject searchOrReport(String token, byte[] image, SearchParameters optionals) throws IOException {
 		JSONObject searchResult = new JSONObject();
 		try {
-			//Create the httpClient
-			HttpClientBuilder clientBuilder = HttpClientBuilder.create();
-			if (PROXY != null) {
-				clientBuilder.setProxy(PROXY.getHttpProxy());
-				if (PROXY.isAuthenticated()) {
-					clientBuilder.setDefaultCredentialsProvider(PROXY.getCredentialsProvider());
+			searchResult = searchPrepared(token, image, optionals);
+		} catch (JSONException | IOException | NoSuchAlgorithmException e) {
+			if (THROW_SEARCH_FAILURES) {
+				throw e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+			}
+			System.err.println(e.getMessage());
+		}
+		return searchResult;
+	}
+
+	//Performs the search request for an already prepared image, reporting any failure to the caller
+	static JSONObject searchPrepared(final String token, final byte[] image, final SearchParameters optionals)
+			throws IOException, NoSuchAlgorithmException {
+		RecognitionCache cache = SEARCH_CACHE;
+		String scope = null;
+		long hash = 0;
+		if (cache != null) {
+			scope = RecognitionCache.scope(token, optionals);
+			hash = PerceptualHash.dHash(image);
+			JSONObject cached = cache.get(scope, hash);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		JSONObject result;
+		Hedging hedging = HEDGING;
+		if (hedging != null) {
+			result = hedging.execute(new Hedging.Request() {
+				@Override
+				public Future<JSONObject> start(FutureCallback<JSONObject> callback) {
+					return executeSearchAsync(token, createSearchRequest(token, image, optionals), callback);
 				}
+			});
+		} else {
+			//Perform the request on the shared client and read the response; searches don't change anything, so they
+			//can be retried
+			try (CloseableHttpResponse response = HttpTransport.execute(createSearchRequest(token, image, optionals), PROXY,
+					true, token, EndpointClass.RECOGNITION, CONCURRENCY_LIMITER)) {
+				result = readResponse(response);
 			}
-			HttpClient httpClient = clientBuilder.build();
-
-			//Create the request and set the headers
-			String url = String.format("%s/%s/search", Settings.RECOGNITION_HOSTNAME, Settings.RECOGNITION_API_VERSION);
-			HttpPost request = new HttpPost(url);
-			request.setHeader("User-Agent", Settings.USER_AGENT);
-
-			//Set request data
-			MultipartEntityBuilder entityBuilder = MultipartEntityBuilder
-					.create()
-					.addBinaryBody("image", image)
-					.addTextBody("token", token);
-			JSONObject jOptionals = optionals.getOptionalsAsJSON();
-			for (String k : jOptionals.keySet()) {
-				entityBuilder.addTextBody(k, jOptionals.getString(k));
+		}
+		if (cache != null) {
+			cache.put(scope, hash, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Starts the search request without waiting for the answer
+	 *
+	 * @param token Catchoom collection token
+	 * @param fileName the path to the image to search
+	 * @return a future which completes with the JSON object containing the results of the search
+	 * @throws IOException if the file can't be found
+	 */
+	public static Future<JSONObject> searchAsync(String token, String fileName) throws IOException {
+		return searchAsync(token, fileName, new SearchParameters(), null);
+	}
+
+	/**
+	 * Starts the search request without waiting for the answer
+	 *
+	 * @param token Catchoom collection token
+	 * @param fileName the path to the image to search
+	 * @param optionals optional parameters for Catchoom search
+	 * @return a future which completes with the JSON object containing the results of the search
+	 * @throws IOException if the file can't be found
+	 */
+	public static Future<JSONObject> searchAsync(String token, String fileName, SearchParameters optionals)
+			throws IOException {
+		return searchAsync(token, fileName, optionals, null);
+	}
+
+	/**
+	 * Starts the search request without waiting for the answer. The image is prepared on the calling thread, while the
+	 * request is carried out by the non-blocking client, so many searches can be in flight on a few threads.
+	 *
+	 * @param token Catchoom collection token
+	 * @param fileName the path to the image to search
+	 * @param optionals optional parameters for Catchoom search
+	 * @param callback notified when the search completes, fails or is cancelled; may be null
+	 * @return a future which completes with the JSON object containing the results of the search
+	 * @throws IOException if the file can't be found
+	 */
+	public static Future<JSONObject> searchAsync(String token, String fileName, SearchParameters optionals,
+			FutureCallback<JSONObject> callback) throws IOException {
+		byte[] image = prepareImageBytes(fileName, optionals);
+		final RecognitionCache cache = SEARCH_CACHE;
+		if (cache == null) {
+			return executeSearchAsync(token, createSearchRequest(token, image, optionals), callback);
+		}
+		final String scope = RecognitionCache.scope(token, optionals);
+		final long hash = PerceptualHash.dHash(image);
+		JSONObject cached = cache.get(scope, hash);
+		if (cached != null) {
+			JSONFuture future = new JSONFuture(callback);
+			future.completed(cached);
+			return future;
+		}
+		//The result is stored before the caller's callback is notified
+		final FutureCallback<JSONObject> delegate = callback;
+		return executeSearchAsync(token, createSearchRequest(token, image, optionals), new FutureCallback<JSONObject>() {
+			@Override
+			public void completed(JSONObject result) {
+				cache.put(scope, hash, result);
+				if (delegate != null) {
+					delegate.completed(result);
+				}
 			}
-			request.setEntity(entityBuilder.build());
-
-			//Perform the request and read the response
-			HttpResponse response = httpClient.execute(request);
-			BufferedReader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent()));
-			String output = "";
-			String line;
-			while ((line = reader.readLine()) != null) {
-				output += line;
+
+			@Override
+			public void failed(Exception ex) {
+				if (delegate != null) {
+					delegate.failed(ex);
+				}
 			}
 
-			//Parse the response into a JSON object
-			searchResult = new JSONObject(output);
-		} catch (JSONException | IOException e) {
-			System.err.println(e.getMessage());
-		} finally {
-			//Restore the orginal data on the file
-			try (OutputStream os = new BufferedOutputStream(new FileOutputStream(fileName))) {
-				os.write(originalData);
+			@Override
+			public void cancelled() {
+				if (delegate != null) {
+					delegate.cancelled();
+				}
 			}
-		}
-		return searchResult;
+		});
 	}
 
 	/**
@@ -144,97 +492,137 @@ public class Recognition {
 	 */
 	public static JSONObject sync(String token, int appID, String version, SyncParameters optionals) {
 		JSONObject syncResult = new JSONObject();
-		try {
-			//Create the httpClient
-			HttpClient httpClient = HttpClientBuilder.create().build();
-
-			//Create the request and set the headers
-			String url = String.format("%s/%s/sync", Settings.RECOGNITION_HOSTNAME, Settings.RECOGNITION_API_VERSION);
-			HttpPost request = new HttpPost(url);
-			request.setHeader("User-Agent", Settings.USER_AGENT);
-
-			//Set request data
-			ArrayList<NameValuePair> postParameters = new ArrayList<>();
-			postParameters.add(new BasicNameValuePair("token", token));
-			postParameters.add(new BasicNameValuePair("app_id", appID + ""));
-			postParameters.add(new BasicNameValuePair("version", version));
-			JSONObject jOptionals = optionals.getOptionalsAsJSON();
-			for (String k : jOptionals.keySet()) {
-				postParameters.add(new BasicNameValuePair(k, jOptionals.getString(k)));
-			}
-			request.setEntity(new UrlEncodedFormEntity(postParameters));
-
-			//Perform the request and read the response
-			HttpResponse response = httpClient.execute(request);
-			BufferedReader reader = new BufferedReader(new InputStreamReader(response.getEntity().getContent()));
-			String output = "";
-			String line;
-			while ((line = reader.readLine()) != null) {
-				output += line;
-			}
-
-			//Parse the response into a JSON object
-			syncResult = new JSONObject(output);
-		} catch (IOException e) {
+		//Perform the request on the shared client and read the response
+		try (CloseableHttpResponse response = HttpTransport.execute(createSyncRequest(token, appID, version, optionals), PROXY,
+				false, token, EndpointClass.RECOGNITION, null)) {
+			syncResult = readResponse(response);
+		} catch (IOException | NoSuchAlgorithmException e) {
 			System.err.println(e.getMessage());
 		}
 		return syncResult;
 	}
 
-	private static byte[] saveFileContent(String fileName) throws IOException {
-		File originalFile = new File(fileName);
-		byte[] originalData = new byte[(int) originalFile.length()];
-		int totalBytesRead = 0;
-		try (InputStream is = new BufferedInputStream(new FileInputStream(originalFile))) {
-			while (totalBytesRead < originalData.length) {
-				int bytesRemaining = originalData.length - totalBytesRead;
-				//input.read() returns -1, 0, or more :
-				int bytesRead = is.read(originalData, totalBytesRead, bytesRemaining);
-				if (bytesRead > 0) {
-					totalBytesRead = totalBytesRead + bytesRead;
-				}
-			}
+	/**
+	 * Starts the synchronization of the on-device bundle without waiting for the answer
+	 *
+	 * @param token Catchoom collection token
+	 * @param appID application ID
+	 * @param version target SDK version
+	 * @return a future which completes with the JSON object containing the results of the synchronization
+	 */
+	public static Future<JSONObject> syncAsync(String token, int appID, String version) {
+		return syncAsync(token, appID, version, new SyncParameters(), null);
+	}
+
+	/**
+	 * Starts the synchronization of the on-device bundle without waiting for the answer
+	 *
+	 * @param token Catchoom collection token
+	 * @param appID application ID
+	 * @param version target SDK version
+	 * @param optionals optional parameters for Catchoom synchronization
+	 * @return a future which completes with the JSON object containing the results of the synchronization
+	 */
+	public static Future<JSONObject> syncAsync(String token, int appID, String version, SyncParameters optionals) {
+		return syncAsync(token, appID, version, optionals, null);
+	}
+
+	/**
+	 * Starts the synchronization of the on-device bundle without waiting for the answer
+	 *
+	 * @param token Catchoom collection token
+	 * @param appID application ID
+	 * @param version target SDK version
+	 * @param optionals optional parameters for Catchoom synchronization
+	 * @param callback notified when the synchronization completes, fails or is cancelled; may be null
+	 * @return a future which completes with the JSON object containing the results of the synchronization
+	 */
+	public static Future<JSONObject> syncAsync(String token, int appID, String version, SyncParameters optionals,
+			FutureCallback<JSONObject> callback) {
+		HttpPost request;
+		try {
+			request = createSyncRequest(token, appID, version, optionals);
+		} catch (UnsupportedEncodingException e) {
+			JSONFuture future = new JSONFuture(callback);
+			future.failed(e);
+			return future;
 		}
-		return originalData;
-	}
-
-	private static File prepareImage(String imagePath, boolean color, int minSize) throws IOException {
-		BufferedImage input = ImageIO.read(new File(imagePath));
-		//Convert to b/w if required
-		if (!color) {
-			int width = input.getWidth();
-			int height = input.getHeight();
-			for (int x = 0; x < width; x++) {
-				for (int y = 0; y < height; y++) {
-					int p = input.getRGB(x, y);
-					int a = (p >> 24) & 0xff;
-					int r = (p >> 16) & 0xff;
-					int g = (p >> 8) & 0xff;
-					int b = p & 0xff;
-					int avg = (r + g + b) / 3;
-					p = (a << 24) | (avg << 16) | (avg << 8) | avg;
-					input.setRGB(x, y, p);
-				}
-			}
+		return executeAsync(token, request, callback);
+	}
+
+	private static HttpPost createSearchRequest(String token, byte[] image, SearchParameters optionals) {
+		//Create the request and set the headers
+		String url = String.format("%s/%s/search", Settings.RECOGNITION_HOSTNAME, Settings.RECOGNITION_API_VERSION);
+		HttpPost request = new HttpPost(url);
+		request.setHeader("User-Agent", Settings.USER_AGENT);
+
+		//Set request data
+		MultipartEntityBuilder entityBuilder = MultipartEntityBuilder
+				.create()
+				.addBinaryBody("image", image, ContentType.create("image/jpeg"), "query.jpg")
+				.addTextBody("token", token);
+		JSONObject jOptionals = optionals.getOptionalsAsJSON();
+		for (String k : jOptionals.keySet()) {
+			entityBuilder.addTextBody(k, jOptionals.getString(k));
 		}
-		//Resize if required
-		if (minSize >= 0) {
-			int width = input.getWidth();
-			int height = input.getHeight();
-			int smallestImageSize = Math.min(width, height);
-			float scaleFactor = (float) minSize / smallestImageSize;
-			int newWidth = Math.round(width * scaleFactor);
-			int newHeight = Math.round(height * scaleFactor);
-
-			Image tmp = input.getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH);
-			input = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
-			Graphics2D g2d = input.createGraphics();
-			g2d.drawImage(tmp, 0, 0, null);
-			g2d.dispose();
+		request.setEntity(entityBuilder.build());
+		return request;
+	}
+
+	private static HttpPost createSyncRequest(String token, int appID, String version, SyncParameters optionals)
+			throws UnsupportedEncodingException {
+		//Create the request and set the headers
+		String url = String.format("%s/%s/sync", Settings.RECOGNITION_HOSTNAME, Settings.RECOGNITION_API_VERSION);
+		HttpPost request = new HttpPost(url);
+		request.setHeader("User-Agent", Settings.USER_AGENT);
+
+		//Set request data
+		ArrayList<NameValuePair> postParameters = new ArrayList<>();
+		postParameters.add(new BasicNameValuePair("token", token));
+		postParameters.add(new BasicNameValuePair("app_id", appID + ""));
+		postParameters.add(new BasicNameValuePair("version", version));
+		JSONObject jOptionals = optionals.getOptionalsAsJSON();
+		for (String k : jOptionals.keySet()) {
+			postParameters.add(new BasicNameValuePair(k, jOptionals.getString(k)));
 		}
-		//Write final result to output
-		File output = new File(imagePath);
-		ImageIO.write(input, "jpg", output);
-		return output;
+		request.setEntity(new UrlEncodedFormEntity(postParameters));
+		return request;
+	}
+
+	private static Future<JSONObject> executeAsync(String token, HttpPost request, FutureCallback<JSONObject> callback) {
+		JSONFuture future = new JSONFuture(callback);
+		future.setRequest(HttpTransport.executeAsync(request, PROXY, false, token, EndpointClass.RECOGNITION, null,
+				future.getResponseCallback()));
+		return future;
+	}
+
+	private static Future<JSONObject> executeSearchAsync(String token, HttpPost request,
+			FutureCallback<JSONObject> callback) {
+		JSONFuture future = new JSONFuture(callback);
+		future.setRequest(startSearch(token, request, future.getResponseCallback()));
+		return future;
+	}
+
+	//Starts the search request for an already prepared image on the non-blocking client
+	static Future<HttpResponse> searchPreparedAsync(String token, byte[] image, SearchParameters optionals,
+			FutureCallback<HttpResponse> callback) throws IOException, NoSuchAlgorithmException {
+		return startSearch(token, createSearchRequest(token, image, optionals), callback);
+	}
+
+	//Starts the search request, whose attempts wait for the concurrency limit, if any
+	private static Future<HttpResponse> startSearch(String token, HttpPost request,
+			FutureCallback<HttpResponse> callback) {
+		return HttpTransport.executeAsync(request, PROXY, true, token, EndpointClass.RECOGNITION, CONCURRENCY_LIMITER,
+				callback);
+	}
+
+	//Parses the body of the response into a JSON object
+	static JSONObject readResponse(HttpResponse response) throws IOException {
+		return ResponseReader.readObject(response.getEntity());
+	}
+
+	//Reads the whole file in a single pass and prepares it in memory, leaving the file untouched
+	static byte[] prepareImageBytes(String fileName, SearchParameters optionals) throws IOException {
+		return ImagePreprocessor.prepare(Files.readAllBytes(Paths.get(fileName)), optionals);
 	}
 }
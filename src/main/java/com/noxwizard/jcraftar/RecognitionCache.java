@@ -0,0 +1,186 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.CacheStats;
+import com.noxwizard.jcraftar.datapassing.SearchParameters;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.json.JSONObject;
+
+/**
+ * Keeps search results by the perceptual hash of the query image, so that near-identical queries, such as consecutive
+ * frames of the same poster, are answered without a request. A result is reused for queries with the same token and
+ * parameters whose hash is within a maximum Hamming distance; up to a maximum number of results are kept, evicting the
+ * least recently used, for a maximum time.
+ * <p>
+ * An identical hash is found with a single lookup. For the others, the 64 bits of the hashes are split into one band
+ * more than the maximum distance: two hashes within that distance are equal in at least one band, so only the results
+ * sharing a band with the query are compared with it. Bands narrower than 8 bits would match most of the results, so
+ * beyond a distance of 7 the query is compared with all the results of its token and parameters.
+ *
+ * @author Stefano Zanini
+ */
+class RecognitionCache {
+
+	private static final int MAX_BANDS = 8;
+
+	private final int maxDistance;
+	private final int bands;
+	private final BoundedCache<String, CachedResult> results;
+	//Hashes of the cached results by scope and band; guarded by this, like the results
+	private final Map<String, Map<Long, Set<Long>>> index = new HashMap<>();
+
+	RecognitionCache(int maxEntries, long ttlMillis, int maxDistance) {
+		this.maxDistance = maxDistance;
+		this.bands = maxDistance + 1 <= MAX_BANDS ? maxDistance + 1 : 1;
+		this.results = new BoundedCache<String, CachedResult>(maxEntries, ttlMillis) {
+			@Override
+			protected void removed(String key, CachedResult value) {
+				unindex(value);
+			}
+		};
+	}
+
+	private static class CachedResult {
+
+		final String scope;
+		final long hash;
+		//Kept as text, since JSON objects are mutable and every caller gets its own copy
+		final String result;
+
+		CachedResult(String scope, long hash, String result) {
+			this.scope = scope;
+			this.hash = hash;
+			this.result = result;
+		}
+	}
+
+	//Results are only valid for the collection and the server side parameters they were found with
+	static String scope(String token, SearchParameters optionals) {
+		return token + '\n' + optionals.getOptionalsAsJSON();
+	}
+
+	private static String key(String scope, long hash) {
+		return scope + '\n' + hash;
+	}
+
+	/**
+	 * Returns a copy of the result of the closest cached query, or null if none is close enough
+	 */
+	JSONObject get(String scope, long hash) {
+		String result = null;
+		synchronized (this) {
+			CachedResult cached = results.get(key(scope, hash));
+			if (cached == null && maxDistance > 0) {
+				cached = getClosest(scope, hash);
+			}
+			if (cached == null) {
+				results.miss();
+				return null;
+			}
+			results.hit();
+			result = cached.result;
+		}
+		return new JSONObject(result);
+	}
+
+	//Guarded by this
+	private CachedResult getClosest(String scope, long hash) {
+		Map<Long, Set<Long>> scopeIndex = index.get(scope);
+		if (scopeIndex == null) {
+			return null;
+		}
+		Set<Long> candidates = new HashSet<>();
+		for (long band : bandKeys(hash)) {
+			Set<Long> hashes = scopeIndex.get(band);
+			if (hashes != null) {
+				candidates.addAll(hashes);
+			}
+		}
+		while (!candidates.isEmpty()) {
+			Long closest = null;
+			int closestDistance = maxDistance + 1;
+			for (Long candidate : candidates) {
+				int distance = PerceptualHash.distance(candidate, hash);
+				if (distance < closestDistance) {
+					closest = candidate;
+					closestDistance = distance;
+				}
+			}
+			if (closest == null) {
+				return null;
+			}
+			//Marks the result as recently used, unless it has expired meanwhile
+			CachedResult cached = results.get(key(scope, closest));
+			if (cached != null) {
+				return cached;
+			}
+			candidates.remove(closest);
+		}
+		return null;
+	}
+
+	/**
+	 * Stores a result, unless it reports an error
+	 */
+	void put(String scope, long hash, JSONObject result) {
+		if (result.has("error")) {
+			return;
+		}
+		String text = result.toString();
+		synchronized (this) {
+			CachedResult cached = new CachedResult(scope, hash, text);
+			results.put(key(scope, hash), cached);
+			Map<Long, Set<Long>> scopeIndex = index.get(scope);
+			if (scopeIndex == null) {
+				scopeIndex = new HashMap<>();
+				index.put(scope, scopeIndex);
+			}
+			for (long band : bandKeys(hash)) {
+				Set<Long> hashes = scopeIndex.get(band);
+				if (hashes == null) {
+					hashes = new HashSet<>();
+					scopeIndex.put(band, hashes);
+				}
+				hashes.add(hash);
+			}
+		}
+	}
+
+	synchronized CacheStats getStats() {
+		return results.getStats();
+	}
+
+	//Guarded by this
+	private void unindex(CachedResult cached) {
+		Map<Long, Set<Long>> scopeIndex = index.get(cached.scope);
+		if (scopeIndex == null) {
+			return;
+		}
+		for (long band : bandKeys(cached.hash)) {
+			Set<Long> hashes = scopeIndex.get(band);
+			if (hashes != null && hashes.remove(cached.hash) && hashes.isEmpty()) {
+				scopeIndex.remove(band);
+			}
+		}
+		if (scopeIndex.isEmpty()) {
+			index.remove(cached.scope);
+		}
+	}
+
+	//Each band is keyed by its position, in the high half, and by its bits; a single band holds all the hashes
+	private long[] bandKeys(long hash) {
+		if (bands == 1) {
+			return new long[]{0};
+		}
+		long[] keys = new long[bands];
+		for (int band = 0; band < bands; band++) {
+			int start = 64 * band / bands;
+			int end = 64 * (band + 1) / bands;
+			long bits = (hash >>> start) & ((1L << (end - start)) - 1);
+			keys[band] = ((long) band << 32) | bits;
+		}
+		return keys;
+	}
+}
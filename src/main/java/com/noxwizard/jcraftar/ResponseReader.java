@@ -0,0 +1,212 @@
+package com.noxwizard.jcraftar;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.DeflateDecompressingEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.entity.ContentType;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * Parses JSON response bodies straight from the entity stream, without building the whole body as a string first.
+ * Compressed bodies are inflated on the fly and the bytes are decoded with the charset of the response, UTF-8 when it
+ * doesn't declare one. The byte and char buffers are reused by all the responses read on the same thread.
+ *
+ * @author Stefano Zanini
+ */
+class ResponseReader {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final ThreadLocal<Buffers> BUFFERS = new ThreadLocal<Buffers>() {
+		@Override
+		protected Buffers initialValue() {
+			return new Buffers();
+		}
+	};
+
+	private ResponseReader() {
+	}
+
+	/**
+	 * Reads and parses the body of a response, consuming the entity
+	 *
+	 * @param entity the response entity
+	 * @return the JSON object in the body
+	 * @throws IOException if the body can't be read, or its content encoding is not supported
+	 * @throws org.json.JSONException if the body is not a JSON object
+	 */
+	static JSONObject readObject(HttpEntity entity) throws IOException {
+		if (entity == null) {
+			throw new IOException("Empty response");
+		}
+		try (Reader reader = open(entity)) {
+			return new JSONObject(new JSONTokener(reader));
+		}
+	}
+
+	/**
+	 * Returns a reader over the decompressed and decoded body of the response, which must be closed to release the
+	 * buffers and the connection
+	 */
+	static Reader open(HttpEntity entity) throws IOException {
+		HttpEntity decoded = decompress(entity);
+		ContentType contentType = ContentType.getOrDefault(decoded);
+		Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+		return new DecodingReader(decoded.getContent(), charset);
+	}
+
+	//The blocking client already inflates the bodies it asked to be compressed and removes the header
+	private static HttpEntity decompress(HttpEntity entity) throws IOException {
+		Header encoding = entity.getContentEncoding();
+		if (encoding == null) {
+			return entity;
+		}
+		String value = encoding.getValue().trim().toLowerCase(Locale.ROOT);
+		switch (value) {
+			case "":
+			case "identity":
+				return entity;
+			case "gzip":
+			case "x-gzip":
+				return new GzipDecompressingEntity(entity);
+			case "deflate":
+				return new DeflateDecompressingEntity(entity);
+			default:
+				throw new IOException(String.format("Unsupported content encoding: %s", value));
+		}
+	}
+
+	private static class Buffers {
+
+		final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+		final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+		boolean inUse;
+	}
+
+	//Like an InputStreamReader over a BufferedReader, but borrowing the thread's buffers instead of allocating its own
+	private static class DecodingReader extends Reader {
+
+		private final InputStream in;
+		private final CharsetDecoder decoder;
+		private final Buffers buffers;
+		private final ByteBuffer bytes;
+		private final CharBuffer chars;
+		private boolean endOfInput;
+		private boolean decoded;
+		private boolean flushed;
+		private int mark = -1;
+
+		DecodingReader(InputStream in, Charset charset) {
+			this.in = in;
+			this.decoder = charset.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			Buffers pooled = BUFFERS.get();
+			//A reader opened while another one is still open on the same thread gets its own buffers
+			this.buffers = pooled.inUse ? new Buffers() : pooled;
+			this.buffers.inUse = true;
+			this.bytes = buffers.bytes;
+			this.chars = buffers.chars;
+			bytes.clear().flip();
+			chars.clear().flip();
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!chars.hasRemaining() && !fill()) {
+				return -1;
+			}
+			return chars.get();
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!chars.hasRemaining() && !fill()) {
+				return -1;
+			}
+			int n = Math.min(len, chars.remaining());
+			chars.get(cbuf, off, n);
+			return n;
+		}
+
+		//Decodes more chars into the buffer, returning false at the end of the body
+		private boolean fill() throws IOException {
+			int keep = 0;
+			if (mark >= 0 && chars.limit() - mark < chars.capacity()) {
+				//Keep the marked chars at the start of the buffer
+				chars.position(mark);
+				keep = chars.remaining();
+				mark = 0;
+			} else {
+				mark = -1;
+				chars.position(chars.limit());
+			}
+			chars.compact();
+			try {
+				while (chars.position() == keep && !flushed) {
+					if (decoded) {
+						flushed = decoder.flush(chars).isUnderflow();
+					} else if (endOfInput) {
+						decoded = decoder.decode(bytes, chars, true).isUnderflow();
+					} else if (decoder.decode(bytes, chars, false).isUnderflow()) {
+						bytes.compact();
+						int read = in.read(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+						if (read < 0) {
+							endOfInput = true;
+						} else {
+							bytes.position(bytes.position() + read);
+						}
+						bytes.flip();
+					}
+				}
+			} finally {
+				chars.flip();
+				chars.position(keep);
+			}
+			return chars.hasRemaining();
+		}
+
+		@Override
+		public boolean markSupported() {
+			return true;
+		}
+
+		//Marks are only kept while they fit in the buffer
+		@Override
+		public void mark(int readAheadLimit) {
+			mark = chars.position();
+		}
+
+		@Override
+		public void reset() throws IOException {
+			if (mark < 0) {
+				throw new IOException("Mark invalid");
+			}
+			chars.position(mark);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				in.close();
+			} finally {
+				buffers.inUse = false;
+			}
+		}
+	}
+}
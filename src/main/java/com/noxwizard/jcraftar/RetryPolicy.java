@@ -0,0 +1,109 @@
+package com.noxwizard.jcraftar;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How idempotent requests (GET, DELETE and searches) are retried after a transient failure: a connection error, a
+ * timeout, or a 429, 502, 503 or 504 response. Before each retry the caller waits for a random time between zero and
+ * an exponentially growing ceiling ("full jitter"), so that many clients failing together don't retry together, or
+ * for the time asked by the server with a Retry-After header.
+ *
+ * @author Stefano Zanini
+ */
+public class RetryPolicy {
+
+	private int maxRetries = 3;
+	private long baseDelayMillis = 100;
+	private long maxDelayMillis = 10000;
+	private boolean respectRetryAfter = true;
+
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	/**
+	 * Sets how many times a request is sent again after the first failure
+	 *
+	 * @param maxRetries 0 or more, 3 by default
+	 * @return this policy
+	 */
+	public RetryPolicy setMaxRetries(int maxRetries) {
+		if (maxRetries < 0) {
+			throw new IllegalArgumentException(String.format("Wrong number of retries: %s", maxRetries));
+		}
+		this.maxRetries = maxRetries;
+		return this;
+	}
+
+	public long getBaseDelayMillis() {
+		return baseDelayMillis;
+	}
+
+	/**
+	 * Sets the ceiling of the wait before the first retry, doubled for each following one
+	 *
+	 * @param baseDelayMillis a positive number of milliseconds, 100 by default
+	 * @return this policy
+	 */
+	public RetryPolicy setBaseDelayMillis(long baseDelayMillis) {
+		if (baseDelayMillis < 1) {
+			throw new IllegalArgumentException(String.format("Wrong base delay: %s", baseDelayMillis));
+		}
+		this.baseDelayMillis = baseDelayMillis;
+		return this;
+	}
+
+	public long getMaxDelayMillis() {
+		return maxDelayMillis;
+	}
+
+	/**
+	 * Sets the longest wait before a retry; a request whose Retry-After asks for more is not retried
+	 *
+	 * @param maxDelayMillis a positive number of milliseconds, 10 seconds by default
+	 * @return this policy
+	 */
+	public RetryPolicy setMaxDelayMillis(long maxDelayMillis) {
+		if (maxDelayMillis < 1) {
+			throw new IllegalArgumentException(String.format("Wrong maximum delay: %s", maxDelayMillis));
+		}
+		this.maxDelayMillis = maxDelayMillis;
+		return this;
+	}
+
+	public boolean isRespectRetryAfter() {
+		return respectRetryAfter;
+	}
+
+	/**
+	 * Sets whether the wait asked by the server with a Retry-After header replaces the computed one
+	 *
+	 * @param respectRetryAfter true by default
+	 * @return this policy
+	 */
+	public RetryPolicy setRespectRetryAfter(boolean respectRetryAfter) {
+		this.respectRetryAfter = respectRetryAfter;
+		return this;
+	}
+
+	/**
+	 * Returns the wait before the given retry
+	 *
+	 * @param retry the number of retries already made, starting from 0
+	 * @param retryAfterMillis the wait asked by the server, or -1 if none
+	 * @return the wait in milliseconds, or -1 if the request must not be retried
+	 */
+	long getDelayMillis(int retry, long retryAfterMillis) {
+		if (retry >= maxRetries) {
+			return -1;
+		}
+		if (respectRetryAfter && retryAfterMillis >= 0) {
+			return retryAfterMillis <= maxDelayMillis ? retryAfterMillis : -1;
+		}
+		long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(retry, 30));
+		if (ceiling < 0) {
+			ceiling = maxDelayMillis;
+		}
+		return ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+}
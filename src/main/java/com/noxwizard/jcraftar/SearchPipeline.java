@@ -0,0 +1,332 @@
+package com.noxwizard.jcraftar;
+
+import com.noxwizard.jcraftar.datapassing.PipelineStats;
+import com.noxwizard.jcraftar.datapassing.SearchParameters;
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.http.HttpResponse;
+import org.apache.http.concurrent.FutureCallback;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Searches a stream of images against the same collection in two overlapping stages. A pool of preprocessing threads,
+ * one per core by default, decodes, converts, resizes and encodes the images and puts them into a bounded queue. A
+ * single upload thread takes them from the queue and sends them on the non-blocking client, keeping up to a given
+ * number of requests in flight. When the uploads fall behind, the queue fills up, the preprocessing threads stop and,
+ * eventually, {@link #submit(String)} blocks the caller.
+ *
+ * @author Stefano Zanini
+ */
+public class SearchPipeline implements Closeable {
+
+	private static final AtomicInteger PIPELINE_COUNT = new AtomicInteger();
+
+	private final String token;
+	private final SearchParameters optionals;
+	private final int preprocessingThreads;
+	private final int maxInFlight;
+	private final ThreadPoolExecutor preprocessing;
+	private final BlockingQueue<Prepared> uploads;
+	private final Semaphore inFlight;
+	private final Thread uploader;
+	private final long startNanos = System.nanoTime();
+	private final AtomicLong preprocessingBusyNanos = new AtomicLong();
+	private final AtomicLong uploadBusyNanos = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	/**
+	 * Creates a pipeline with one preprocessing thread per core, a queue of twice as many prepared images and up to 64
+	 * requests in flight
+	 *
+	 * @param token Catchoom collection token
+	 * @param optionals optional parameters for Catchoom search, shared by all the images
+	 */
+	public SearchPipeline(String token, SearchParameters optionals) {
+		this(token, optionals, Runtime.getRuntime().availableProcessors(),
+				Runtime.getRuntime().availableProcessors() * 2, 64);
+	}
+
+	/**
+	 * @param token Catchoom collection token
+	 * @param optionals optional parameters for Catchoom search, shared by all the images
+	 * @param preprocessingThreads the number of threads preparing images
+	 * @param queueCapacity how many images can be submitted, and how many prepared images can wait for the upload,
+	 * before the previous stage stops
+	 * @param maxInFlight the maximum number of search requests waiting for the server's answer
+	 */
+	public SearchPipeline(String token, SearchParameters optionals, int preprocessingThreads, int queueCapacity,
+			int maxInFlight) {
+		if (preprocessingThreads < 1 || queueCapacity < 1 || maxInFlight < 1) {
+			throw new IllegalArgumentException("Threads, queue capacity and requests in flight must be positive");
+		}
+		this.token = token;
+		this.optionals = optionals;
+		this.preprocessingThreads = preprocessingThreads;
+		this.maxInFlight = maxInFlight;
+		final int id = PIPELINE_COUNT.incrementAndGet();
+		this.preprocessing = new ThreadPoolExecutor(preprocessingThreads, preprocessingThreads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, String.format("jcraftar-pipeline-%d-preprocessing-%d", id, count.incrementAndGet()));
+				thread.setDaemon(true);
+				return thread;
+			}
+		}, new RejectedExecutionHandler() {
+			//Blocks the submitting thread until there is room in the queue
+			@Override
+			public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+				if (executor.isShutdown()) {
+					throw new RejectedExecutionException("The pipeline has been closed");
+				}
+				try {
+					executor.getQueue().put(r);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RejectedExecutionException(e);
+				}
+			}
+		});
+		this.uploads = new ArrayBlockingQueue<>(queueCapacity);
+		this.inFlight = new Semaphore(maxInFlight);
+		this.uploader = new Thread(new Uploader(), String.format("jcraftar-pipeline-%d-upload", id));
+		this.uploader.setDaemon(true);
+		this.uploader.start();
+	}
+
+	/**
+	 * Queues the image for search, blocking if the pipeline is full
+	 *
+	 * @param fileName the path to the image to search
+	 * @return a future which completes with the JSON object containing the results of the search
+	 */
+	public Future<JSONObject> submit(String fileName) {
+		return submit(fileName, null);
+	}
+
+	/**
+	 * Queues the image for search, blocking if the pipeline is full
+	 *
+	 * @param fileName the path to the image to search
+	 * @param callback notified when the search completes, fails or is cancelled; may be null
+	 * @return a future which completes with the JSON object containing the results of the search
+	 */
+	public Future<JSONObject> submit(final String fileName, FutureCallback<JSONObject> callback) {
+		return enqueue(new Preparation(callback) {
+			@Override
+			byte[] prepare() throws IOException {
+				return Recognition.prepareImageBytes(fileName, optionals);
+			}
+		});
+	}
+
+	/**
+	 * Queues the image for search, blocking if the pipeline is full
+	 *
+	 * @param image the encoded image to search
+	 * @return a future which completes with the JSON object containing the results of the search
+	 */
+	public Future<JSONObject> submit(byte[] image) {
+		return submit(image, null);
+	}
+
+	/**
+	 * Queues the image for search, blocking if the pipeline is full
+	 *
+	 * @param image the encoded image to search
+	 * @param callback notified when the search completes, fails or is cancelled; may be null
+	 * @return a future which completes with the JSON object containing the results of the search
+	 */
+	public Future<JSONObject> submit(final byte[] image, FutureCallback<JSONObject> callback) {
+		return enqueue(new Preparation(callback) {
+			@Override
+			byte[] prepare() throws IOException {
+				return ImagePreprocessor.prepare(image, optionals);
+			}
+		});
+	}
+
+	private Future<JSONObject> enqueue(Preparation preparation) {
+		preprocessing.execute(preparation);
+		return preparation.future;
+	}
+
+	/**
+	 * Returns the current depth of the queues, the requests in flight and how busy each stage has been
+	 *
+	 * @return a snapshot of the pipeline state
+	 */
+	public PipelineStats getStats() {
+		double elapsed = Math.max(1, System.nanoTime() - startNanos);
+		return new PipelineStats(
+				preprocessing.getQueue().size(),
+				uploads.size(),
+				maxInFlight - inFlight.availablePermits(),
+				preprocessingBusyNanos.get() / (elapsed * preprocessingThreads),
+				uploadBusyNanos.get() / (elapsed * maxInFlight),
+				completed.get(),
+				failed.get());
+	}
+
+	/**
+	 * Stops accepting images. The images already submitted are still prepared and sent. Closing the pipeline again has
+	 * no effect.
+	 */
+	@Override
+	public void close() {
+		if (!closed.compareAndSet(false, true)) {
+			return;
+		}
+		preprocessing.shutdown();
+		//Once all the images are prepared, tell the upload thread to stop after the last one
+		Thread closer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					preprocessing.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+					uploads.put(Prepared.END);
+				} catch (InterruptedException e) {
+					uploader.interrupt();
+				}
+			}
+		}, uploader.getName() + "-close");
+		//Like the pipeline's own threads, it doesn't keep the JVM alive while an image is still being prepared
+		closer.setDaemon(true);
+		closer.start();
+	}
+
+	private static class Prepared {
+
+		static final Prepared END = new Prepared(null, null);
+
+		final byte[] image;
+		final JSONFuture future;
+
+		Prepared(byte[] image, JSONFuture future) {
+			this.image = image;
+			this.future = future;
+		}
+	}
+
+	//The preprocessing stage of an image
+	private abstract class Preparation implements Runnable {
+
+		final JSONFuture future;
+
+		Preparation(FutureCallback<JSONObject> callback) {
+			this.future = new JSONFuture(callback);
+		}
+
+		abstract byte[] prepare() throws IOException;
+
+		@Override
+		public void run() {
+			if (future.isCancelled()) {
+				return;
+			}
+			long start = System.nanoTime();
+			byte[] image;
+			try {
+				image = prepare();
+			} catch (IOException | RuntimeException e) {
+				failed.incrementAndGet();
+				future.failed(e);
+				return;
+			} finally {
+				preprocessingBusyNanos.addAndGet(System.nanoTime() - start);
+			}
+			try {
+				uploads.put(new Prepared(image, future));
+			} catch (InterruptedException e) {
+				future.failed(e);
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	//The upload stage: sends the prepared images as long as there are free slots for requests in flight
+	private class Uploader implements Runnable {
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					final Prepared prepared = uploads.take();
+					if (prepared == Prepared.END) {
+						return;
+					}
+					if (prepared.future.isCancelled()) {
+						continue;
+					}
+					inFlight.acquire();
+					final long start = System.nanoTime();
+					try {
+						prepared.future.setRequest(Recognition.searchPreparedAsync(token, prepared.image, optionals,
+								new FutureCallback<HttpResponse>() {
+							@Override
+							public void completed(HttpResponse response) {
+								done();
+								//A body which can't be read counts as a failed search
+								JSONObject result;
+								try {
+									result = Recognition.readResponse(response);
+								} catch (IOException | JSONException e) {
+									fail(e);
+									return;
+								}
+								completed.incrementAndGet();
+								prepared.future.completed(result);
+							}
+
+							@Override
+							public void failed(Exception ex) {
+								done();
+								fail(ex);
+							}
+
+							@Override
+							public void cancelled() {
+								done();
+								prepared.future.cancel();
+							}
+
+							private void done() {
+								uploadBusyNanos.addAndGet(System.nanoTime() - start);
+								inFlight.release();
+							}
+
+							private void fail(Exception ex) {
+								SearchPipeline.this.failed.incrementAndGet();
+								prepared.future.failed(ex);
+							}
+						}));
+					} catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+						inFlight.release();
+						failed.incrementAndGet();
+						prepared.future.failed(e);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
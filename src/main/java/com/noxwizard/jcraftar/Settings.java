@@ -17,6 +17,13 @@ public class Settings {
 
     public static int DEFAULT_QUERY_MIN_SIZE = 240; //default image transformation parameters
 
+    public static int MAX_CONNECTIONS_TOTAL = 50; //connection pool parameters, read when the shared client is created
+    public static int MAX_CONNECTIONS_PER_ROUTE = 20;
+    public static long KEEP_ALIVE_MILLIS = 30000;
+
+    public static int DEFAULT_PAGE_SIZE = 100; //objects per request when iterating over or fetching a whole list
+    public static int DEFAULT_FETCH_PARALLELISM = 4; //concurrent page requests when fetching a whole list
+
     static String[] ALLOWED_IMG_EXTENSIONS = {".jpg", ".jpeg", ".png", ".JPG", ".JPEG", ".PNG"};
     static String[] ALLOWED_OBJECT_TYPES = {"collection", "item", "image", "token", "media", "tag", "version",
         "collectionbundle", "app"};
@@ -0,0 +1,73 @@
+package com.noxwizard.jcraftar;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Makes concurrent identical calls share a single execution. The first caller for a key runs the call in its own thread;
+ * callers arriving with the same key before it is over wait for it and get the same result or exception. Results must
+ * therefore be immutable, or copied by the callers.
+ *
+ * @author Stefano Zanini
+ */
+class SingleFlight<V> {
+
+	private final ConcurrentMap<String, FutureTask<V>> calls = new ConcurrentHashMap<>();
+	private final AtomicLong coalesced = new AtomicLong();
+
+	V execute(String key, Callable<V> call) throws CatchoomException, IOException, NoSuchAlgorithmException {
+		FutureTask<V> task = new FutureTask<>(call);
+		FutureTask<V> inFlight = calls.putIfAbsent(key, task);
+		if (inFlight == null) {
+			try {
+				task.run();
+			} finally {
+				calls.remove(key, task);
+			}
+			inFlight = task;
+		} else {
+			coalesced.incrementAndGet();
+		}
+		try {
+			return inFlight.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for an identical request", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CatchoomException) {
+				throw (CatchoomException) cause;
+			} else if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof NoSuchAlgorithmException) {
+				throw (NoSuchAlgorithmException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Makes the callers arriving from now on with the given key run a new call instead of joining the one in flight,
+	 * whose result may be out of date
+	 */
+	void forget(String key) {
+		calls.remove(key);
+	}
+
+	/**
+	 * Returns the number of calls which shared the execution of an identical one instead of running their own
+	 */
+	long getCoalesced() {
+		return coalesced.get();
+	}
+}
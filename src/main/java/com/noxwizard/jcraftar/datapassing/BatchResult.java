@@ -0,0 +1,74 @@
+package com.noxwizard.jcraftar.datapassing;
+
+import org.json.JSONObject;
+
+/**
+ * The outcome of a single image of a batch search
+ *
+ * @author Stefano Zanini
+ */
+public class BatchResult {
+
+    private final int index;
+    private final String fileName;
+    private final JSONObject result;
+    private final Exception error;
+    private final long elapsedNanos;
+
+    public BatchResult(int index, String fileName, JSONObject result, Exception error, long elapsedNanos) {
+        this.index = index;
+        this.fileName = fileName;
+        this.result = result;
+        this.error = error;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the position of the image in the batch
+     *
+     * @return the index of the image, starting from 0
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the path of the image, when it was given as a file name
+     *
+     * @return the file name, or null for an image given in memory
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the search results
+     *
+     * @return the JSON answer of the server, or null if the search failed
+     */
+    public JSONObject getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the reason why the search failed
+     *
+     * @return the error, or null if the search succeeded
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    /**
+     * Returns the time spent on this image, preparation and request included
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
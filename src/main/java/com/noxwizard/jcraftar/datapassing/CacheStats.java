@@ -0,0 +1,86 @@
+package com.noxwizard.jcraftar.datapassing;
+
+/**
+ * A snapshot of the counters of a cache
+ *
+ * @author Stefano Zanini
+ */
+public class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+    private final int size;
+
+    public CacheStats(long hits, long misses, long evictions, long expirations, long invalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the fraction of lookups answered by the cache
+     *
+     * @return a value between 0 and 1, 0 if there have been no lookups
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns the number of entries removed to make room for new ones
+     *
+     * @return the least recently used entries dropped because the cache was full
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of entries dropped because they were older than the time to live
+     *
+     * @return the expired entries
+     */
+    public long getExpirations() {
+        return expirations;
+    }
+
+    /**
+     * Returns the number of entries dropped because the object was updated or deleted
+     *
+     * @return the invalidated entries
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Returns the number of entries currently in the cache
+     *
+     * @return the cache size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[hits: %d; misses: %d; hit rate: %.2f; evictions: %d; expirations: %d; "
+                + "invalidations: %d; size: %d]", hits, misses, getHitRate(), evictions, expirations, invalidations,
+                size);
+    }
+}
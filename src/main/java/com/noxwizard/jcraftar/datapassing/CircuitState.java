@@ -0,0 +1,22 @@
+package com.noxwizard.jcraftar.datapassing;
+
+/**
+ * The state of the circuit breaker of an endpoint
+ *
+ * @author Stefano Zanini
+ */
+public enum CircuitState {
+
+    /**
+     * Requests are sent normally
+     */
+    CLOSED,
+    /**
+     * Too many consecutive requests failed: new ones fail right away until the open time is over
+     */
+    OPEN,
+    /**
+     * The open time is over: a single trial request is sent, whose outcome closes or opens the circuit again
+     */
+    HALF_OPEN
+}
@@ -0,0 +1,106 @@
+package com.noxwizard.jcraftar.datapassing;
+
+/**
+ * A snapshot of the adaptive concurrency limit of the searches and of its counters
+ *
+ * @author Stefano Zanini
+ */
+public class ConcurrencyStats {
+
+    private final int limit;
+    private final int inFlight;
+    private final int queued;
+    private final long requests;
+    private final long dropped;
+    private final double queueMillis;
+    private final double rttMillis;
+    private final double minRttMillis;
+
+    public ConcurrencyStats(int limit, int inFlight, int queued, long requests, long dropped, double queueMillis,
+            double rttMillis, double minRttMillis) {
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.queued = queued;
+        this.requests = requests;
+        this.dropped = dropped;
+        this.queueMillis = queueMillis;
+        this.rttMillis = rttMillis;
+        this.minRttMillis = minRttMillis;
+    }
+
+    /**
+     * Returns how many searches can currently be in flight at once
+     *
+     * @return the current limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the number of searches waiting for one of the in flight ones to complete
+     *
+     * @return the queued searches
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * Returns the number of searches let through since the limit was enabled
+     *
+     * @return the searches started
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of search attempts which timed out, lost their connection or were answered with 429 or a 5xx
+     * status, each of which lowered the limit
+     *
+     * @return the dropped searches
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Returns how long the searches waited in the queue on average
+     *
+     * @return the mean queueing time in milliseconds, 0 if there have been no searches
+     */
+    public double getQueueMillis() {
+        return queueMillis;
+    }
+
+    /**
+     * Returns the recent round trip time of the searches, smoothed over about 20 searches
+     *
+     * @return the round trip time in milliseconds, or -1 if no search has completed yet
+     */
+    public double getRttMillis() {
+        return rttMillis;
+    }
+
+    /**
+     * Returns the round trip time of the searches when the server isn't queueing them, that is the lowest one recently
+     * measured
+     *
+     * @return the minimum round trip time in milliseconds, or -1 if no search has completed yet
+     */
+    public double getMinRttMillis() {
+        return minRttMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[limit: %d; in flight: %d; queued: %d; requests: %d; dropped: %d; "
+                + "queue: %.1f ms; rtt: %.1f ms; min rtt: %.1f ms]",
+                limit, inFlight, queued, requests, dropped, queueMillis, rttMillis, minRttMillis);
+    }
+}
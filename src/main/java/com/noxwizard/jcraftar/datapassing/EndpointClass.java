@@ -0,0 +1,18 @@
+package com.noxwizard.jcraftar.datapassing;
+
+/**
+ * The APIs whose requests are counted against separate quotas
+ *
+ * @author Stefano Zanini
+ */
+public enum EndpointClass {
+
+    /**
+     * The Management API, whose requests are counted by API key
+     */
+    MANAGEMENT,
+    /**
+     * The Recognition API (search and sync), whose requests are counted by collection token
+     */
+    RECOGNITION
+}
@@ -0,0 +1,82 @@
+package com.noxwizard.jcraftar.datapassing;
+
+/**
+ * A snapshot of the counters of a frame recognizer
+ *
+ * @author Stefano Zanini
+ */
+public class FrameStats {
+
+    private final long submitted;
+    private final long duplicates;
+    private final long stale;
+    private final long searched;
+    private final long completed;
+    private final long failed;
+    private final int inFlight;
+
+    public FrameStats(long submitted, long duplicates, long stale, long searched, long completed, long failed,
+            int inFlight) {
+        this.submitted = submitted;
+        this.duplicates = duplicates;
+        this.stale = stale;
+        this.searched = searched;
+        this.completed = completed;
+        this.failed = failed;
+        this.inFlight = inFlight;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * Returns the number of frames skipped because they were too similar to the last one searched
+     *
+     * @return the duplicate frames
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Returns the number of frames dropped because a newer one arrived before they could be searched
+     *
+     * @return the stale frames
+     */
+    public long getStale() {
+        return stale;
+    }
+
+    /**
+     * Returns the number of frames actually sent to the server
+     *
+     * @return the search requests made
+     */
+    public long getSearched() {
+        return searched;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the number of search requests waiting for the server's answer
+     *
+     * @return the requests in flight
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[submitted: %d; duplicates: %d; stale: %d; searched: %d; completed: %d; failed: %d; "
+                + "in flight: %d]", submitted, duplicates, stale, searched, completed, failed, inFlight);
+    }
+}
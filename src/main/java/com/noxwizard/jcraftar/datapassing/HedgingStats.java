@@ -0,0 +1,72 @@
+package com.noxwizard.jcraftar.datapassing;
+
+/**
+ * A snapshot of the counters of hedged searches
+ *
+ * @author Stefano Zanini
+ */
+public class HedgingStats {
+
+    private final long requests;
+    private final long hedged;
+    private final long hedgeWins;
+    private final double delayMillis;
+
+    public HedgingStats(long requests, long hedged, long hedgeWins, double delayMillis) {
+        this.requests = requests;
+        this.hedged = hedged;
+        this.hedgeWins = hedgeWins;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Returns the number of searches made since hedging was enabled
+     *
+     * @return the searches, not counting the duplicates
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of duplicate requests sent because a search was slower than the delay
+     *
+     * @return the duplicate requests
+     */
+    public long getHedged() {
+        return hedged;
+    }
+
+    /**
+     * Returns the number of duplicate requests answered before the search they duplicated
+     *
+     * @return the searches sped up by a duplicate
+     */
+    public long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    /**
+     * Returns the fraction of the searches which sent a duplicate request
+     *
+     * @return a value between 0 and 1, 0 if there have been no searches
+     */
+    public double getHedgedRate() {
+        return requests == 0 ? 0 : (double) hedged / requests;
+    }
+
+    /**
+     * Returns how long a search currently waits before sending a duplicate
+     *
+     * @return the delay in milliseconds, or -1 until enough latencies have been measured
+     */
+    public double getDelayMillis() {
+        return delayMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[requests: %d; hedged: %d; hedge wins: %d; hedged rate: %.3f; delay: %.1f ms]",
+                requests, hedged, hedgeWins, getHedgedRate(), delayMillis);
+    }
+}
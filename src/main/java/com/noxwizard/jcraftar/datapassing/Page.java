@@ -0,0 +1,90 @@
+package com.noxwizard.jcraftar.datapassing;
+
+import org.json.JSONArray;
+
+/**
+ * One page of a list, together with the pagination data sent along with it, so that neither the total count nor the
+ * position of the neighbouring pages require further requests
+ *
+ * @author Stefano Zanini
+ */
+public class Page {
+
+    private final JSONArray objects;
+    private final int totalCount;
+    private final int offset;
+    private final int limit;
+    private final int nextOffset;
+    private final int previousOffset;
+
+    public Page(JSONArray objects, int totalCount, int offset, int limit, int nextOffset, int previousOffset) {
+        this.objects = objects;
+        this.totalCount = totalCount;
+        this.offset = offset;
+        this.limit = limit;
+        this.nextOffset = nextOffset;
+        this.previousOffset = previousOffset;
+    }
+
+    /**
+     * Returns the objects of this page
+     *
+     * @return a JSON array, empty past the end of the list
+     */
+    public JSONArray getObjects() {
+        return objects;
+    }
+
+    /**
+     * Returns the number of objects in the whole list
+     *
+     * @return the total count of objects matching the filtering criterias
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the position of the first object of this page in the whole list
+     *
+     * @return the offset of this page
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the page size granted by the server, which may be lower than the requested one
+     *
+     * @return the maximum number of objects per page
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the offset to request for the following page
+     *
+     * @return the offset of the next page, or -1 if this is the last one
+     */
+    public int getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Returns the offset to request for the preceding page
+     *
+     * @return the offset of the previous page, or -1 if this is the first one
+     */
+    public int getPreviousOffset() {
+        return previousOffset;
+    }
+
+    public boolean hasNext() {
+        return nextOffset >= 0;
+    }
+
+    public boolean hasPrevious() {
+        return previousOffset >= 0;
+    }
+}
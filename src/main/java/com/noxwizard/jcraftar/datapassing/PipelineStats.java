@@ -0,0 +1,88 @@
+package com.noxwizard.jcraftar.datapassing;
+
+/**
+ * A snapshot of the state of a search pipeline
+ *
+ * @author Stefano Zanini
+ */
+public class PipelineStats {
+
+    private final int preprocessingQueueDepth;
+    private final int uploadQueueDepth;
+    private final int inFlight;
+    private final double preprocessingUtilization;
+    private final double uploadUtilization;
+    private final long completed;
+    private final long failed;
+
+    public PipelineStats(int preprocessingQueueDepth, int uploadQueueDepth, int inFlight,
+            double preprocessingUtilization, double uploadUtilization, long completed, long failed) {
+        this.preprocessingQueueDepth = preprocessingQueueDepth;
+        this.uploadQueueDepth = uploadQueueDepth;
+        this.inFlight = inFlight;
+        this.preprocessingUtilization = preprocessingUtilization;
+        this.uploadUtilization = uploadUtilization;
+        this.completed = completed;
+        this.failed = failed;
+    }
+
+    /**
+     * Returns the number of images waiting for a preprocessing thread
+     *
+     * @return the images submitted but not yet being prepared
+     */
+    public int getPreprocessingQueueDepth() {
+        return preprocessingQueueDepth;
+    }
+
+    /**
+     * Returns the number of prepared images waiting to be uploaded
+     *
+     * @return the images prepared but not yet sent
+     */
+    public int getUploadQueueDepth() {
+        return uploadQueueDepth;
+    }
+
+    /**
+     * Returns the number of search requests waiting for the server's answer
+     *
+     * @return the requests in flight
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the fraction of time the preprocessing threads have been busy since the pipeline was created
+     *
+     * @return a value between 0 and 1
+     */
+    public double getPreprocessingUtilization() {
+        return preprocessingUtilization;
+    }
+
+    /**
+     * Returns the average number of requests in flight since the pipeline was created, relative to the maximum
+     *
+     * @return a value between 0 and 1
+     */
+    public double getUploadUtilization() {
+        return uploadUtilization;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[preprocessing queue: %d; upload queue: %d; in flight: %d; preprocessing utilization: %.2f; "
+                + "upload utilization: %.2f; completed: %d; failed: %d]", preprocessingQueueDepth, uploadQueueDepth,
+                inFlight, preprocessingUtilization, uploadUtilization, completed, failed);
+    }
+}
@@ -0,0 +1,23 @@
+package com.noxwizard.jcraftar.datapassing;
+
+/**
+ * Trade-off between speed and quality when the query image is resized
+ *
+ * @author Stefano Zanini
+ */
+public enum ScalingQuality {
+
+    /**
+     * Single bilinear pass: the fastest, but it aliases when the image is reduced a lot
+     */
+    FAST,
+    /**
+     * Repeated halving followed by a bilinear pass: close to QUALITY at a fraction of the cost
+     */
+    BALANCED,
+    /**
+     * Area averaging, where every source pixel contributes to the result: the same filter as
+     * {@link java.awt.Image#SCALE_SMOOTH}
+     */
+    QUALITY
+}
@@ -11,6 +11,10 @@ public class SearchParameters implements Parameters {
 
     private boolean color = false;
     private int minSize = Settings.DEFAULT_QUERY_MIN_SIZE;
+    private ScalingQuality scalingQuality = ScalingQuality.QUALITY;
+    private float jpegQuality = 0.75f;
+    private boolean chromaSubsampling = true;
+    private boolean progressive = false;
     private boolean embedCustom = false;
     private boolean embedTracking = false;
     private boolean bbox = false;
@@ -36,6 +40,71 @@ public class SearchParameters implements Parameters {
         return this;
     }
 
+    public ScalingQuality getScalingQuality() {
+        return scalingQuality;
+    }
+
+    /**
+     * Sets how the query image is resized to the minimum size; this is applied locally and not sent to the server
+     *
+     * @param scalingQuality the speed/quality trade-off of the resize
+     * @return these parameters
+     */
+    public SearchParameters setScalingQuality(ScalingQuality scalingQuality) {
+        this.scalingQuality = scalingQuality;
+        return this;
+    }
+
+    public float getJpegQuality() {
+        return jpegQuality;
+    }
+
+    /**
+     * Sets the quality of the JPEG sent to the server; this is applied locally and not sent to the server
+     *
+     * @param jpegQuality from 0 (smallest) to 1 (best), 0.75 by default
+     * @return these parameters
+     */
+    public SearchParameters setJpegQuality(float jpegQuality) {
+        if (!(jpegQuality >= 0 && jpegQuality <= 1)) {
+            throw new IllegalArgumentException(String.format("Wrong JPEG quality: %s", jpegQuality));
+        }
+        this.jpegQuality = jpegQuality;
+        return this;
+    }
+
+    public boolean isChromaSubsampling() {
+        return chromaSubsampling;
+    }
+
+    /**
+     * Sets whether color queries are encoded with halved chroma resolution (4:2:0) or full one (4:4:4); this is applied
+     * locally and not sent to the server
+     *
+     * @param chromaSubsampling true, the default, for 4:2:0
+     * @return these parameters
+     */
+    public SearchParameters setChromaSubsampling(boolean chromaSubsampling) {
+        this.chromaSubsampling = chromaSubsampling;
+        return this;
+    }
+
+    public boolean isProgressive() {
+        return progressive;
+    }
+
+    /**
+     * Sets whether the query is encoded as a progressive or a baseline JPEG; this is applied locally and not sent to the
+     * server
+     *
+     * @param progressive false, the default, for baseline
+     * @return these parameters
+     */
+    public SearchParameters setProgressive(boolean progressive) {
+        this.progressive = progressive;
+        return this;
+    }
+
     public boolean isEmbedCustom() {
         return embedCustom;
     }
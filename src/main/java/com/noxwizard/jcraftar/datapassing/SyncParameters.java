@@ -32,7 +32,7 @@ public class SyncParameters implements Parameters {
     @Override
     public JSONObject getOptionalsAsJSON() {
         JSONObject optionals = new JSONObject();
-        optionals.put("bundled", bundled);
+        optionals.put("bundled", String.valueOf(bundled));
         optionals.put("tag", tag != null ? tag : "");
         return optionals;
     }
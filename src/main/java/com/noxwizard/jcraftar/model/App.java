@@ -0,0 +1,31 @@
+package com.noxwizard.jcraftar.model;
+
+import java.util.Map;
+
+/**
+ * An application using on-device recognition
+ *
+ * @author Stefano Zanini
+ */
+public class App extends ManagementObject {
+
+    private final String name;
+    private final String collection;
+
+    public App(String uuid, String name, String collection, Map<String, Object> attributes) {
+        super(uuid, attributes);
+        this.name = name;
+        this.collection = collection;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the uuid of the collection this object belongs to
+     */
+    public String getCollection() {
+        return collection;
+    }
+}
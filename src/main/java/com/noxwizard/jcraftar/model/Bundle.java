@@ -0,0 +1,59 @@
+package com.noxwizard.jcraftar.model;
+
+import java.util.Map;
+
+/**
+ * An on-device collection bundle, built for an app and an SDK version
+ *
+ * @author Stefano Zanini
+ */
+public class Bundle extends ManagementObject {
+
+    private final String collection;
+    private final String app;
+    private final String version;
+    private final String tag;
+    private final String file;
+
+    public Bundle(String uuid, String collection, String app, String version, String tag, String file,
+            Map<String, Object> attributes) {
+        super(uuid, attributes);
+        this.collection = collection;
+        this.app = app;
+        this.version = version;
+        this.tag = tag;
+        this.file = file;
+    }
+
+    /**
+     * Returns the uuid of the collection this object belongs to
+     */
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * Returns the uuid of the app this object belongs to
+     */
+    public String getApp() {
+        return app;
+    }
+
+    /**
+     * Returns the uuid of the SDK version this object belongs to
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the uuid of the tag this object belongs to
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    public String getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,28 @@
+package com.noxwizard.jcraftar.model;
+
+import java.util.Map;
+
+/**
+ * A collection of items, recognized with its tokens
+ *
+ * @author Stefano Zanini
+ */
+public class Collection extends ManagementObject {
+
+    private final String name;
+    private final boolean offline;
+
+    public Collection(String uuid, String name, boolean offline, Map<String, Object> attributes) {
+        super(uuid, attributes);
+        this.name = name;
+        this.offline = offline;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+}
@@ -0,0 +1,37 @@
+package com.noxwizard.jcraftar.model;
+
+import java.util.Map;
+
+/**
+ * A reference image of an item
+ *
+ * @author Stefano Zanini
+ */
+public class Image extends ManagementObject {
+
+    private final String name;
+    private final String item;
+    private final String file;
+
+    public Image(String uuid, String name, String item, String file, Map<String, Object> attributes) {
+        super(uuid, attributes);
+        this.name = name;
+        this.item = item;
+        this.file = file;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the uuid of the item this object belongs to
+     */
+    public String getItem() {
+        return item;
+    }
+
+    public String getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,62 @@
+package com.noxwizard.jcraftar.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An item of a collection, which can be recognized through its reference images
+ *
+ * @author Stefano Zanini
+ */
+public class Item extends ManagementObject {
+
+    private final String name;
+    private final String collection;
+    private final String url;
+    private final String custom;
+    private final boolean trackable;
+    private final List<String> tags;
+
+    public Item(String uuid, String name, String collection, String url, String custom, boolean trackable,
+            List<String> tags, Map<String, Object> attributes) {
+        super(uuid, attributes);
+        this.name = name;
+        this.collection = collection;
+        this.url = url;
+        this.custom = custom;
+        this.trackable = trackable;
+        this.tags = tags == null ? null : Collections.unmodifiableList(new ArrayList<>(tags));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the uuid of the collection this object belongs to
+     */
+    public String getCollection() {
+        return collection;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getCustom() {
+        return custom;
+    }
+
+    public boolean isTrackable() {
+        return trackable;
+    }
+
+    /**
+     * Returns the uuids of the tags
+     */
+    public List<String> getTags() {
+        return tags;
+    }
+}
@@ -0,0 +1,96 @@
+package com.noxwizard.jcraftar.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The attributes shared by every object of the Management API. References to other objects hold their uuid, not their
+ * API uri. All the attributes sent by the server, including the ones with a typed getter, are available through
+ * {@link #getAttribute(String)}.
+ *
+ * @author Stefano Zanini
+ */
+public abstract class ManagementObject {
+
+    private final String uuid;
+    private final Map<String, Object> attributes;
+
+    /**
+     * @param uuid the uuid of the object
+     * @param attributes the attributes as sent by the server, typed ones included, which {@link #toJSONObject()}
+     * writes back
+     */
+    protected ManagementObject(String uuid, Map<String, Object> attributes) {
+        this.uuid = uuid;
+        this.attributes = attributes == null || attributes.isEmpty()
+                ? Collections.<String, Object>emptyMap()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Returns an attribute as sent by the server, with references to other objects turned into uuids
+     *
+     * @param key the attribute name, as sent by the server
+     * @return a String, Boolean, Number, JSONObject or JSONArray (a copy, for the latter two), JSONObject.NULL for
+     * null values, or null if the server didn't send the attribute
+     */
+    public Object getAttribute(String key) {
+        return copy(attributes.get(key));
+    }
+
+    /**
+     * Returns the names of the attributes sent by the server
+     */
+    public Set<String> getAttributeNames() {
+        return attributes.keySet();
+    }
+
+    /**
+     * Returns the object as the Management API methods returning JSON objects do
+     *
+     * @return a new JSON object with the attributes sent by the server, and no others
+     */
+    public JSONObject toJSONObject() {
+        JSONObject object = new JSONObject();
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            object.put(attribute.getKey(), copy(attribute.getValue()));
+        }
+        return object;
+    }
+
+    //Copies the nested objects and arrays, which are mutable, and turns lists of uuids into arrays
+    private static Object copy(Object value) {
+        if (value instanceof JSONObject) {
+            JSONObject original = (JSONObject) value;
+            JSONObject copy = new JSONObject();
+            for (String key : original.keySet()) {
+                copy.put(key, copy(original.get(key)));
+            }
+            return copy;
+        } else if (value instanceof JSONArray) {
+            JSONArray original = (JSONArray) value;
+            JSONArray copy = new JSONArray();
+            for (int i = 0; i < original.length(); i++) {
+                copy.put(copy(original.opt(i)));
+            }
+            return copy;
+        } else if (value instanceof List) {
+            return new JSONArray((List<?>) value);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return toJSONObject().toString();
+    }
+}
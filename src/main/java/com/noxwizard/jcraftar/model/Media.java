@@ -0,0 +1,34 @@
+package com.noxwizard.jcraftar.model;
+
+import java.util.Map;
+
+/**
+ * A media object, such as an image or a video, used in AR content
+ *
+ * @author Stefano Zanini
+ */
+public class Media extends ManagementObject {
+
+    private final String name;
+    private final String file;
+    private final String mimetype;
+
+    public Media(String uuid, String name, String file, String mimetype, Map<String, Object> attributes) {
+        super(uuid, attributes);
+        this.name = name;
+        this.file = file;
+        this.mimetype = mimetype;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public String getMimetype() {
+        return mimetype;
+    }
+}
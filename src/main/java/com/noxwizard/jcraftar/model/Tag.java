@@ -0,0 +1,31 @@
+package com.noxwizard.jcraftar.model;
+
+import java.util.Map;
+
+/**
+ * A tag, which restricts the items searched with a token
+ *
+ * @author Stefano Zanini
+ */
+public class Tag extends ManagementObject {
+
+    private final String name;
+    private final String collection;
+
+    public Tag(String uuid, String name, String collection, Map<String, Object> attributes) {
+        super(uuid, attributes);
+        this.name = name;
+        this.collection = collection;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the uuid of the collection this object belongs to
+     */
+    public String getCollection() {
+        return collection;
+    }
+}
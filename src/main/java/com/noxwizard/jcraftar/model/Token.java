@@ -0,0 +1,42 @@
+package com.noxwizard.jcraftar.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A token, used to search a collection. Tokens are identified by the token itself, which is also returned by
+ * {@link #getUuid()}.
+ *
+ * @author Stefano Zanini
+ */
+public class Token extends ManagementObject {
+
+    private final String collection;
+    private final List<String> tags;
+
+    public Token(String token, String collection, List<String> tags, Map<String, Object> attributes) {
+        super(token, attributes);
+        this.collection = collection;
+        this.tags = tags == null ? null : Collections.unmodifiableList(new ArrayList<>(tags));
+    }
+
+    public String getToken() {
+        return getUuid();
+    }
+
+    /**
+     * Returns the uuid of the collection this object belongs to
+     */
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * Returns the uuids of the tags
+     */
+    public List<String> getTags() {
+        return tags;
+    }
+}
@@ -0,0 +1,16 @@
+package com.noxwizard.jcraftar.model;
+
+import java.util.Map;
+
+/**
+ * An SDK version for which on-device collection bundles can be built. Its attributes, other than the uuid, are
+ * available through {@link #getAttribute(String)}.
+ *
+ * @author Stefano Zanini
+ */
+public class Version extends ManagementObject {
+
+    public Version(String uuid, Map<String, Object> attributes) {
+        super(uuid, attributes);
+    }
+}